@@ -0,0 +1,92 @@
+package hashTable;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a range of the cells of a hash table in which
+ * each cell holds at most one item. A subclass says what item a cell
+ * holds; splitting halves the range, and the estimated size with it.
+ */
+abstract class CellSpliterator<AnyType> implements Spliterator<AnyType>
+{
+    /**
+     * Construct the spliterator.
+     * @param origin the first cell.
+     * @param fence one past the last cell.
+     * @param estimate the approximate number of items in the range.
+     */
+    CellSpliterator( int origin, int fence, long estimate )
+    {
+        this.index = origin;
+        this.fence = fence;
+        this.estimate = estimate;
+    }
+
+    /**
+     * The item in a cell.
+     * @param pos the cell.
+     * @return the item, or null if the cell holds none.
+     */
+    abstract AnyType itemAt( int pos );
+
+    /**
+     * Make a spliterator over another range of the same cells.
+     */
+    abstract CellSpliterator<AnyType> split( int origin, int fence, long estimate );
+
+    public boolean tryAdvance( Consumer<? super AnyType> action )
+    {
+        while( index < fence )
+        {
+            AnyType x = itemAt( index++ );
+            if( x != null )
+            {
+                action.accept( x );
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void forEachRemaining( Consumer<? super AnyType> action )
+    {
+        int end = fence;
+        for( int pos = index; pos < end; pos++ )
+        {
+            AnyType x = itemAt( pos );
+            if( x != null )
+                action.accept( x );
+        }
+        index = end;
+    }
+
+    public Spliterator<AnyType> trySplit( )
+    {
+        int mid = ( index + fence ) >>> 1;
+        if( mid - index < MIN_SPLIT )
+            return null;
+
+        estimate >>>= 1;
+        Spliterator<AnyType> prefix = split( index, mid, estimate );
+        index = mid;
+        return prefix;
+    }
+
+    public long estimateSize( )
+    {
+        return estimate;
+    }
+
+    public int characteristics( )
+    {
+        return DISTINCT | NONNULL;
+    }
+
+    private static final int MIN_SPLIT = 1 << 10;   // Cells below which a range is not split
+
+    private int index;       // The next cell
+    private final int fence; // One past the last cell
+    private long estimate;   // Approximate number of items left
+}
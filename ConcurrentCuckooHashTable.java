@@ -0,0 +1,413 @@
+package hashTable;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// ConcurrentCuckoo Hash table class
+//
+// CONSTRUCTION: a maker of hashing function families and
+//               an approximate initial size or default of 101
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+
+/**
+ * Thread-safe cuckoo hash table with optimistic lookups.
+ * <p>
+ * The cells are split into stripes, each with a version counter used
+ * as a seqlock: a writer makes it odd before touching a cell of the
+ * stripe and even again afterwards. contains reads the versions of
+ * the stripes of all candidate cells, reads the cells, and trusts a
+ * miss only if none of those versions changed; a hit is always
+ * trusted. It never takes the lock, and retries only when a write
+ * touched one of its stripes meanwhile, so it is not wait-free: a
+ * stream of writes to those stripes could keep it retrying.
+ * <p>
+ * Writers are serialized by a lock. An insert first searches
+ * breadth-first for the shortest chain of displacements that ends in
+ * an empty cell, and only then performs the moves from the far end
+ * back: each item is copied to its new cell before its old cell is
+ * overwritten, so every item is in the table at every moment.
+ * Growing, or drawing new hash functions, builds a new array aside
+ * and publishes it in one step. Each array keeps the hash family it
+ * was built with, so readers go on using the old array with its own
+ * functions until then, and are never held up by a rebuild.
+ */
+public class ConcurrentCuckooHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     * @param families makes a hash family with new functions on each
+     *        call, such as ( ) -> new StringHashFamily( 3 ). The
+     *        table never changes a family it was given,
+     *        and lookups call its hash methods while a writer runs,
+     *        so they must keep no state, as HashFamily requires.
+     */
+    public ConcurrentCuckooHashTable( Supplier<? extends HashFamily<? super AnyType>> families )
+    {
+        this( families, DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param families makes a hash family with new functions on each
+     *        call; see above.
+     * @param size the approximate initial size.
+     */
+    public ConcurrentCuckooHashTable( Supplier<? extends HashFamily<? super AnyType>> families, int size )
+    {
+        this.families = families;
+        table = new Table( TableSizing.POWER_OF_TWO.capacity( size ), families.get( ) );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, return false.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        writeLock.lock( );
+        try
+        {
+            Table t = table;
+            if( findPos( t, x ) != -1 )
+                return false;
+
+            if( currentSize >= t.slots.length( ) * MAX_LOAD )
+                t = rebuild( 2 * t.slots.length( ), false );
+
+            int rehashes = 0;
+            while( !place( t, x ) )
+            {
+                if( ++rehashes > ALLOWED_REHASHES )
+                {
+                    t = rebuild( 2 * t.slots.length( ), false );   // Make the table bigger
+                    rehashes = 0;
+                }
+                else
+                    t = rebuild( t.slots.length( ), true );
+            }
+
+            currentSize++;
+            return true;
+        }
+        finally
+        {
+            writeLock.unlock( );
+        }
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if item was found and removed
+     */
+    public boolean remove( AnyType x )
+    {
+        writeLock.lock( );
+        try
+        {
+            Table t = table;
+            int pos = findPos( t, x );
+            if( pos == -1 )
+                return false;
+
+            t.write( pos, null );
+            currentSize--;
+            return true;
+        }
+        finally
+        {
+            writeLock.unlock( );
+        }
+    }
+
+    /**
+     * Find an item in the hash table, without locking.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        while( true )
+        {
+                // A replaced table is no longer written, so its final
+                // contents are those of the set when it was replaced
+            Table t = table;
+            long h64 = t.hashFunctions.hash64( x );
+            boolean stable = true;
+            long seen = 0;    // Sum of the versions read; they only grow
+            for( int i = 0; i < t.numHashFunctions; i++ )
+            {
+                int pos = myhash( t, x, h64, i );
+                long version = t.versions.get( pos & t.stripeMask );
+                if( ( version & 1 ) != 0 )
+                {
+                    stable = false;
+                    break;
+                }
+                seen += version;
+
+                Object item = t.slots.get( pos );
+                if( item != null && item.equals( x ) )
+                    return true;
+            }
+
+                // A miss counts only if no cell looked at was written meanwhile
+            if( stable )
+            {
+                long now = 0;
+                for( int i = 0; i < t.numHashFunctions; i++ )
+                    now += t.versions.get( myhash( t, x, h64, i ) & t.stripeMask );
+                stable = now == seen;
+            }
+
+            if( stable )
+                return false;
+        }
+    }
+
+    /**
+     * Gets the size of the table.
+     * @return number of items in the hash table.
+     */
+    public int size( )
+    {
+        return currentSize;
+    }
+
+    /**
+     * Gets the length (potential capacity) of the table.
+     * @return length of the internal array in the hash table.
+     */
+    public int capacity( )
+    {
+        return table.slots.length( );
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        writeLock.lock( );
+        try
+        {
+            table = new Table( table.slots.length( ), table.hashFunctions );
+            currentSize = 0;
+        }
+        finally
+        {
+            writeLock.unlock( );
+        }
+    }
+
+    /**
+     * Internal method to put an item into a table, moving other items
+     * along the shortest path found by a breadth-first search.
+     * Must be called with the write lock held.
+     * @param t the table.
+     * @param x the item, not present in t.
+     * @return true if x was placed, false if no path was found.
+     */
+    private boolean place( Table t, AnyType x )
+    {
+        long h64 = t.hashFunctions.hash64( x );
+        for( int i = 0; i < t.numHashFunctions; i++ )
+        {
+            int pos = myhash( t, x, h64, i );
+            if( t.slots.get( pos ) == null )
+            {
+                t.write( pos, x );
+                return true;
+            }
+        }
+
+        visited.makeEmpty( );
+        int head = 0;
+        int tail = 0;
+
+        for( int i = 0; i < t.numHashFunctions; i++ )
+        {
+            int pos = myhash( t, x, h64, i );
+            if( visited.insert( pos ) )
+            {
+                queue[ tail ] = pos;
+                parent[ tail++ ] = -1;
+            }
+        }
+
+        for( ; head < tail; head++ )
+        {
+            int pos = queue[ head ];
+            AnyType occupant = t.item( pos );
+            long occupantHash = t.hashFunctions.hash64( occupant );
+
+            for( int i = 0; i < t.numHashFunctions; i++ )
+            {
+                int next = myhash( t, occupant, occupantHash, i );
+                if( next == pos )
+                    continue;
+
+                if( t.slots.get( next ) == null )
+                {
+                        // Move each item one step, starting from the empty end
+                    int dst = next;
+                    for( int n = head; n != -1; n = parent[ n ] )
+                    {
+                        int src = queue[ n ];
+                        t.move( src, dst );
+                        dst = src;
+                    }
+                    t.write( dst, x );
+                    return true;
+                }
+
+                if( tail < MAX_PATH_SEARCH && visited.insert( next ) )
+                {
+                    queue[ tail ] = next;
+                    parent[ tail++ ] = head;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Internal method to build a new table holding every item and
+     * publish it. The old table is left untouched, with its own hash
+     * family, for the readers still using it.
+     * Must be called with the write lock held.
+     * @param newLength the minimum length of the new table.
+     * @param newFunctions true to use a new hash family.
+     * @return the published table.
+     */
+    private Table rebuild( int newLength, boolean newFunctions )
+    {
+        Table old = table;
+        int length = TableSizing.POWER_OF_TWO.capacity( newLength );
+        HashFamily<? super AnyType> hf = newFunctions ? families.get( ) : old.hashFunctions;
+
+        while( true )
+        {
+            Table t = new Table( length, hf );
+            boolean placed = true;
+            for( int i = 0; placed && i < old.slots.length( ); i++ )
+                if( old.slots.get( i ) != null )
+                    placed = place( t, old.item( i ) );
+
+            if( placed )
+            {
+                table = t;
+                return t;
+            }
+
+                // Could not fit everything: try new functions at twice the length
+            hf = families.get( );
+            length *= 2;
+        }
+    }
+
+    /**
+     * Method that searches all hash function places.
+     * Must be called with the write lock held.
+     * @param t the table.
+     * @param x the item to search for.
+     * @return the position of x, or -1 if not found.
+     */
+    private int findPos( Table t, AnyType x )
+    {
+        long h64 = t.hashFunctions.hash64( x );
+        for( int i = 0; i < t.numHashFunctions; i++ )
+        {
+            int pos = myhash( t, x, h64, i );
+            Object item = t.slots.get( pos );
+            if( item != null && item.equals( x ) )
+                return pos;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Internal method to find the cell of an item by one function.
+     * @param h64 the hash64 of x, computed once per operation.
+     */
+    private int myhash( Table t, AnyType x, long h64, int which )
+    {
+        return TableSizing.POWER_OF_TWO.index( t.hashFunctions.hash( x, h64, which ), t.slots.length( ) );
+    }
+
+    /**
+     * The cells, the versions of their stripes, and the hash family
+     * that places items in them. Only the thread holding the write
+     * lock changes a published table, and never its family.
+     */
+    private final class Table
+    {
+        final AtomicReferenceArray<Object> slots;
+        final AtomicLongArray versions;   // One seqlock per stripe
+        final int stripeMask;
+        final HashFamily<? super AnyType> hashFunctions;
+        final int numHashFunctions;
+
+        Table( int length, HashFamily<? super AnyType> hf )
+        {
+            slots = new AtomicReferenceArray<>( length );
+            versions = new AtomicLongArray( Math.min( length, MAX_STRIPES ) );
+            stripeMask = versions.length( ) - 1;
+            hashFunctions = hf;
+            numHashFunctions = hf.getNumberOfFunctions( );
+        }
+
+        @SuppressWarnings( "unchecked" )
+        AnyType item( int pos )
+        {
+            return (AnyType) slots.get( pos );
+        }
+
+        void write( int pos, Object x )
+        {
+            int stripe = pos & stripeMask;
+            versions.incrementAndGet( stripe );
+            slots.set( pos, x );
+            versions.incrementAndGet( stripe );
+        }
+
+        /**
+         * Copy the item at src into dst; src keeps its copy until
+         * the next step of the path overwrites it.
+         */
+        void move( int src, int dst )
+        {
+            write( dst, slots.get( src ) );
+        }
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final double MAX_LOAD = 0.40;
+    private static final int ALLOWED_REHASHES = 1;
+    private static final int MAX_STRIPES = 1024;
+    private static final int MAX_PATH_SEARCH = 256;   // Cells examined per path search
+
+    private final Supplier<? extends HashFamily<? super AnyType>> families;
+    private final ReentrantLock writeLock = new ReentrantLock( );
+
+        // The path search of place, kept between inserts; guarded by writeLock
+    private final int [ ] queue = new int[ MAX_PATH_SEARCH ];
+    private final int [ ] parent = new int[ MAX_PATH_SEARCH ];
+    private final IntHashSet visited = new IntHashSet( MAX_PATH_SEARCH );
+
+    private volatile Table table;
+    private volatile int currentSize;
+}
@@ -0,0 +1,408 @@
+package hashTable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// ConcurrentSeparateChaining Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               and optionally the number of lock stripes (default 64)
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return number of chains
+
+/**
+ * Thread-safe separate chaining table implementation of hash tables.
+ * Writers lock one stripe, which guards every chain whose index is
+ * congruent to the stripe number. Readers take no locks: chain heads
+ * and links are volatile, and a removal only unlinks a node, so a
+ * concurrent contains always sees a consistent chain.
+ * <p>
+ * Resizing is cooperative. The thread that crosses the load limit
+ * publishes a new table twice as long, and every writer that meets a
+ * chain already moved (marked by a forwarding node) helps by claiming
+ * the next range of chains to move before it retries. Each chain is
+ * copied into the new table before its forwarding node is set, so
+ * readers on the old table never miss an item.
+ * Note that all "matching" is based on the equals method.
+ */
+public class ConcurrentSeparateChainingHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     */
+    public ConcurrentSeparateChainingHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     */
+    public ConcurrentSeparateChainingHashTable( int size )
+    {
+        this( size, DEFAULT_STRIPES );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     * @param stripes the approximate number of lock stripes.
+     */
+    public ConcurrentSeparateChainingHashTable( int size, int stripes )
+    {
+        locks = new Object[ TableSizing.POWER_OF_TWO.capacity( stripes ) ];
+        for( int i = 0; i < locks.length; i++ )
+            locks[ i ] = new Object( );
+        stripeMask = locks.length - 1;
+
+            // Every table is at least as long as the stripe array, so a
+            // chain and the two chains it splits into share one stripe
+        table = new AtomicReferenceArray<>(
+                TableSizing.POWER_OF_TWO.capacity( Math.max( size, locks.length ) ) );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, then do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int hashVal = spread( x );
+        AtomicReferenceArray<Node<AnyType>> tab = table;
+
+        while( true )
+        {
+            int i = hashVal & ( tab.length( ) - 1 );
+            Node<AnyType> head = tab.get( i );
+            if( head instanceof ForwardingNode )
+            {
+                tab = helpResize( (ForwardingNode<AnyType>) head );
+                continue;
+            }
+
+            synchronized( locks[ i & stripeMask ] )
+            {
+                head = tab.get( i );
+                if( head instanceof ForwardingNode )
+                    continue;
+
+                for( Node<AnyType> p = head; p != null; p = p.next )
+                    if( p.hash == hashVal && p.element.equals( x ) )
+                        return false;
+
+                tab.set( i, new Node<>( hashVal, x, head ) );
+            }
+
+            count.increment( );
+            if( count.sum( ) > (long) ( tab.length( ) * MAX_LOAD ) )
+                startResize( tab );
+            return true;
+        }
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if the item was removed.
+     */
+    public boolean remove( AnyType x )
+    {
+        int hashVal = spread( x );
+        AtomicReferenceArray<Node<AnyType>> tab = table;
+
+        while( true )
+        {
+            int i = hashVal & ( tab.length( ) - 1 );
+            Node<AnyType> head = tab.get( i );
+            if( head == null )
+                return false;
+            if( head instanceof ForwardingNode )
+            {
+                tab = helpResize( (ForwardingNode<AnyType>) head );
+                continue;
+            }
+
+            synchronized( locks[ i & stripeMask ] )
+            {
+                head = tab.get( i );
+                if( head instanceof ForwardingNode )
+                    continue;
+
+                for( Node<AnyType> p = head, pred = null; p != null; pred = p, p = p.next )
+                    if( p.hash == hashVal && p.element.equals( x ) )
+                    {
+                        if( pred == null )
+                            tab.set( i, p.next );
+                        else
+                            pred.next = p.next;
+                        count.decrement( );
+                        return true;
+                    }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Find an item in the hash table. Never blocks.
+     * @param x the item to search for.
+     * @return true if x is found.
+     */
+    public boolean contains( AnyType x )
+    {
+        int hashVal = spread( x );
+        AtomicReferenceArray<Node<AnyType>> tab = table;
+
+        while( true )
+        {
+            Node<AnyType> p = tab.get( hashVal & ( tab.length( ) - 1 ) );
+            if( p instanceof ForwardingNode )
+            {
+                tab = ( (ForwardingNode<AnyType>) p ).nextTable;
+                continue;
+            }
+
+            for( ; p != null; p = p.next )
+                if( p.hash == hashVal && p.element.equals( x ) )
+                    return true;
+
+            return false;
+        }
+    }
+
+    /**
+     * Get current size. Exact only when no update is in progress.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return (int) Math.min( count.sum( ), Integer.MAX_VALUE );
+    }
+
+    /**
+     * Get the number of chains in the current table.
+     * @return the number of chains.
+     */
+    public int capacity( )
+    {
+        return table.length( );
+    }
+
+    /**
+     * Make the hash table logically empty. Items inserted
+     * concurrently with this call may or may not remain.
+     */
+    public void makeEmpty( )
+    {
+        AtomicReferenceArray<Node<AnyType>> tab = table;
+
+        for( int i = 0; i < tab.length( ); i++ )
+        {
+            Node<AnyType> head;
+            synchronized( locks[ i & stripeMask ] )
+            {
+                head = tab.get( i );
+                if( !( head instanceof ForwardingNode ) )
+                {
+                    int removed = 0;
+                    for( Node<AnyType> p = head; p != null; p = p.next )
+                        removed++;
+                    tab.set( i, null );
+                    count.add( -removed );
+                }
+            }
+
+            if( head instanceof ForwardingNode )
+            {
+                    // A resize moved this chain; clear the new table instead
+                tab = helpResize( (ForwardingNode<AnyType>) head );
+                i = -1;
+            }
+        }
+    }
+
+    /**
+     * Internal method to start a resize of tab, unless one is running
+     * or tab has already been replaced, and take part in it.
+     * @param tab the table that has become too full.
+     */
+    private void startResize( AtomicReferenceArray<Node<AnyType>> tab )
+    {
+        if( table != tab || tab.length( ) >= MAX_TABLE_SIZE || resize.get( ) != null )
+            return;
+
+        Resize<AnyType> r = new Resize<>( tab );
+        if( !resize.compareAndSet( null, r ) )
+            return;
+
+            // A resize of tab may have finished between the checks above
+            // and the compareAndSet; it publishes table before clearing resize
+        if( table != tab )
+        {
+            resize.set( null );
+            return;
+        }
+
+        transfer( r );
+    }
+
+    /**
+     * Internal method to help the resize that moved a chain, and
+     * return the table that chain was moved to.
+     * @param fwd the forwarding node found in place of the chain.
+     * @return the table to retry in.
+     */
+    private AtomicReferenceArray<Node<AnyType>> helpResize( ForwardingNode<AnyType> fwd )
+    {
+        Resize<AnyType> r = resize.get( );
+        if( r != null && r.newTab == fwd.nextTable )
+            transfer( r );
+        return fwd.nextTable;
+    }
+
+    /**
+     * Internal method to move chains of the old table into the new
+     * one, claiming TRANSFER_STRIDE chains at a time, until none
+     * are left to claim. The thread that finishes the last range
+     * publishes the new table.
+     * @param r the resize in progress.
+     */
+    private void transfer( Resize<AnyType> r )
+    {
+        int n = r.oldTab.length( );
+
+        while( true )
+        {
+            int start = r.nextChain.getAndAdd( TRANSFER_STRIDE );
+            if( start >= n )
+                return;
+
+            int end = Math.min( start + TRANSFER_STRIDE, n );
+            for( int i = start; i < end; i++ )
+                transferChain( r, i );
+
+            if( r.chainsDone.addAndGet( end - start ) == n )
+            {
+                table = r.newTab;
+                resize.set( null );
+                return;
+            }
+        }
+    }
+
+    /**
+     * Internal method to split chain i of the old table into chains
+     * i and i + n of the new table, then mark it as moved.
+     * The nodes are copied, so readers still walking the old chain
+     * are unaffected.
+     * @param r the resize in progress.
+     * @param i the index of the chain.
+     */
+    private void transferChain( Resize<AnyType> r, int i )
+    {
+        int n = r.oldTab.length( );
+
+        synchronized( locks[ i & stripeMask ] )
+        {
+            Node<AnyType> lo = null;
+            Node<AnyType> hi = null;
+            for( Node<AnyType> p = r.oldTab.get( i ); p != null; p = p.next )
+            {
+                if( ( p.hash & n ) == 0 )
+                    lo = new Node<>( p.hash, p.element, lo );
+                else
+                    hi = new Node<>( p.hash, p.element, hi );
+            }
+
+            r.newTab.set( i, lo );
+            r.newTab.set( i + n, hi );
+            r.oldTab.set( i, r.forward );
+        }
+    }
+
+    private static int spread( Object x )
+    {
+        return TableSizing.mix( x.hashCode( ) );
+    }
+
+    /**
+     * A chain node. The element and hash never change; next is
+     * volatile so that unlinking is visible to readers.
+     */
+    private static class Node<AnyType>
+    {
+        final int hash;
+        final AnyType element;
+        volatile Node<AnyType> next;
+
+        Node( int h, AnyType e, Node<AnyType> n )
+        {
+            hash = h;
+            element = e;
+            next = n;
+        }
+    }
+
+    /**
+     * Placed in a chain of the old table once the chain has been
+     * moved into nextTable.
+     */
+    private static final class ForwardingNode<AnyType> extends Node<AnyType>
+    {
+        final AtomicReferenceArray<Node<AnyType>> nextTable;
+
+        ForwardingNode( AtomicReferenceArray<Node<AnyType>> nextTable )
+        {
+            super( 0, null, null );
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * The state shared by the threads cooperating on one resize.
+     */
+    private static final class Resize<AnyType>
+    {
+        final AtomicReferenceArray<Node<AnyType>> oldTab;
+        final AtomicReferenceArray<Node<AnyType>> newTab;
+        final ForwardingNode<AnyType> forward;
+        final AtomicInteger nextChain = new AtomicInteger( );   // Next chain to claim
+        final AtomicInteger chainsDone = new AtomicInteger( );  // Chains moved so far
+
+        Resize( AtomicReferenceArray<Node<AnyType>> oldTab )
+        {
+            this.oldTab = oldTab;
+            newTab = new AtomicReferenceArray<>( 2 * oldTab.length( ) );
+            forward = new ForwardingNode<>( newTab );
+        }
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+    private static final double MAX_LOAD = 1.0;
+    private static final int TRANSFER_STRIDE = 64;
+
+    private final Object [ ] locks;  // The stripe locks
+    private final int stripeMask;    // locks.length - 1
+
+        /** The current table of chains. */
+    private volatile AtomicReferenceArray<Node<AnyType>> table;
+
+        /** The resize in progress, or null. */
+    private final AtomicReference<Resize<AnyType>> resize = new AtomicReference<>( );
+
+    private final LongAdder count = new LongAdder( );
+}
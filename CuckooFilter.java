@@ -0,0 +1,283 @@
+package hashTable;
+
+import java.util.Arrays;
+
+// CuckooFilter class
+//
+// CONSTRUCTION: a hashing function family and
+//               the number of items expected
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool add( x )          --> Add x; false if the filter is full
+// bool mightContain( x ) --> Return false if x was surely never added
+// bool remove( x )       --> Remove x, which must have been added
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return number of fingerprint slots
+
+/**
+ * Cuckoo filter: an approximate set that stores a 16-bit fingerprint
+ * of each item instead of the item, so it can stand in front of a
+ * hash table, or on its own for sets too large to keep exactly.
+ * mightContain never answers false for an item that was added; it
+ * answers true for one never added with a chance of about
+ * 2 * SLOTS / 2^16, 0.012%, when the filter is full, and less when
+ * it is not.
+ * <p>
+ * Each bucket holds SLOTS fingerprints packed into one long, and
+ * each item has two buckets. The first comes from its hash, and the
+ * second is the first XORed with a hash of the fingerprint, so that
+ * either bucket can be found from the other and the fingerprint
+ * alone. That lets an insertion move fingerprints to their other
+ * bucket, as a cuckoo table moves items, without knowing the items.
+ * A lookup reads two longs and tests all of their fingerprints at
+ * once with word-level bit tricks.
+ * <p>
+ * The hash of an item mixes functions 0 and 1 of the family (only 0
+ * if it has one), and the filter never draws new functions, since it
+ * cannot rehash items it does not keep: the family must not be shared
+ * with a table that does. The number of buckets is a power of two
+ * sized for the expected number of items at MAX_LOAD. Once a fingerprint
+ * finds no room after MAX_KICKS moves, it is kept aside and the filter
+ * is full: add returns false until a remove makes room again.
+ * <p>
+ * An item added twice is stored twice, and remove takes out one copy.
+ * Removing an item never added may take out the fingerprint of
+ * another item, which mightContain would then miss.
+ */
+public class CuckooFilter<AnyType>
+{
+    /**
+     * Construct the filter.
+     * @param hf the hash family.
+     * @param expectedSize the number of items the filter must hold.
+     */
+    public CuckooFilter( HashFamily<? super AnyType> hf, int expectedSize )
+    {
+        if( expectedSize < 0 )
+            throw new IllegalArgumentException( "expectedSize: " + expectedSize );
+
+        hashFunctions = hf;
+        buckets = new long[ TableSizing.POWER_OF_TWO.capacity(
+                (int) Math.min( expectedSize / ( SLOTS * MAX_LOAD ) + 1, Integer.MAX_VALUE ) ) ];
+        mask = buckets.length - 1;
+        random = 1;
+    }
+
+    /**
+     * Add an item to the filter.
+     * @param x the item to add.
+     * @return true if it was added, false if the filter is full.
+     */
+    public boolean add( AnyType x )
+    {
+        if( victim != EMPTY )
+            return false;
+
+        long h = hash( x );
+        int fp = fingerprint( h );
+        int i1 = (int) h & mask;
+        if( put( i1, fp ) || put( altIndex( i1, fp ), fp ) )
+        {
+            theSize++;
+            return true;
+        }
+
+            // Both buckets are full. Move fingerprints out of the way
+        int bucket = ( nextRandom( ) & 1 ) == 0 ? i1 : altIndex( i1, fp );
+        for( int kicks = 0; kicks < MAX_KICKS; kicks++ )
+        {
+            int shift = ( nextRandom( ) & ( SLOTS - 1 ) ) * 16;
+            int evicted = (int) ( buckets[ bucket ] >>> shift ) & FP_MASK;
+            buckets[ bucket ] ^= (long) ( evicted ^ fp ) << shift;
+            fp = evicted;
+
+            bucket = altIndex( bucket, fp );
+            if( put( bucket, fp ) )
+            {
+                theSize++;
+                return true;
+            }
+        }
+
+            // Keep the last one aside; x itself is in
+        victim = fp;
+        victimBucket = bucket;
+        theSize++;
+        return true;
+    }
+
+    /**
+     * Test an item against the filter.
+     * @param x the item to search for.
+     * @return false if x is surely not in the filter,
+     *         true if it probably is.
+     */
+    public boolean mightContain( AnyType x )
+    {
+        long h = hash( x );
+        int fp = fingerprint( h );
+        int i1 = (int) h & mask;
+        int i2 = altIndex( i1, fp );
+
+        return hasFingerprint( buckets[ i1 ], fp ) || hasFingerprint( buckets[ i2 ], fp )
+                || victim == fp && ( victimBucket == i1 || victimBucket == i2 );
+    }
+
+    /**
+     * Remove an item from the filter. The item must have been added.
+     * @param x the item to remove.
+     * @return true if a fingerprint of x was found and removed.
+     */
+    public boolean remove( AnyType x )
+    {
+        long h = hash( x );
+        int fp = fingerprint( h );
+        int i1 = (int) h & mask;
+        int i2 = altIndex( i1, fp );
+
+        if( victim == fp && ( victimBucket == i1 || victimBucket == i2 ) )
+            victim = EMPTY;
+        else if( !take( i1, fp ) && !take( i2, fp ) )
+            return false;
+
+        theSize--;
+
+            // There may be room for the fingerprint kept aside now
+        if( victim != EMPTY && ( put( victimBucket, victim ) || put( altIndex( victimBucket, victim ), victim ) ) )
+            victim = EMPTY;
+        return true;
+    }
+
+    /**
+     * Make the filter logically empty.
+     */
+    public void makeEmpty( )
+    {
+        Arrays.fill( buckets, 0 );
+        victim = EMPTY;
+        theSize = 0;
+    }
+
+    /**
+     * Get current size.
+     * @return the number of items added and not removed.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get the number of fingerprint slots.
+     * @return the number of buckets times SLOTS.
+     */
+    public int capacity( )
+    {
+        return buckets.length * SLOTS;
+    }
+
+    /**
+     * Internal method to hash an item into 64 bits: the low bits pick
+     * its first bucket and the high 16 its fingerprint.
+     */
+    private long hash( AnyType x )
+    {
+        long h64 = hashFunctions.hash64( x );
+        long h = (long) hashFunctions.hash( x, h64, 0 ) << 32;
+        if( hashFunctions.getNumberOfFunctions( ) > 1 )
+            h |= hashFunctions.hash( x, h64, 1 ) & 0xFFFFFFFFL;
+        return TableSizing.mix( h );
+    }
+
+    /**
+     * Internal method to get the fingerprint of a hash, never 0,
+     * which marks an empty slot.
+     */
+    private static int fingerprint( long h )
+    {
+        int fp = (int) ( h >>> 48 );
+        return fp != EMPTY ? fp : 1;
+    }
+
+    /**
+     * Internal method to get the other bucket of a fingerprint.
+     * It is its own inverse.
+     */
+    private int altIndex( int bucket, int fp )
+    {
+        return ( bucket ^ TableSizing.mix( fp ) ) & mask;
+    }
+
+    /**
+     * Internal method to put a fingerprint in an empty slot of a bucket.
+     * @return false if the bucket is full.
+     */
+    private boolean put( int bucket, int fp )
+    {
+        long word = buckets[ bucket ];
+        for( int shift = 0; shift < 64; shift += 16 )
+            if( ( ( word >>> shift ) & FP_MASK ) == EMPTY )
+            {
+                buckets[ bucket ] = word | (long) fp << shift;
+                return true;
+            }
+
+        return false;
+    }
+
+    /**
+     * Internal method to empty a slot of a bucket holding a fingerprint.
+     * @return false if there is none.
+     */
+    private boolean take( int bucket, int fp )
+    {
+        long word = buckets[ bucket ];
+        for( int shift = 0; shift < 64; shift += 16 )
+            if( ( ( word >>> shift ) & FP_MASK ) == fp )
+            {
+                buckets[ bucket ] = word & ~( (long) FP_MASK << shift );
+                return true;
+            }
+
+        return false;
+    }
+
+    /**
+     * Return true if a slot of word holds fp: XORing with fp zeroes
+     * that slot, and the test for a zero 16-bit lane is exact.
+     */
+    private static boolean hasFingerprint( long word, int fp )
+    {
+        long x = word ^ ( LSBS * fp );
+        return ( ( x - LSBS ) & ~x & MSBS ) != 0;
+    }
+
+    /**
+     * Internal method to draw the next number of an xorshift sequence,
+     * for choosing which fingerprint to move.
+     */
+    private int nextRandom( )
+    {
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        return random;
+    }
+
+    private static final int SLOTS = 4;              // Fingerprints per bucket, one long
+    private static final double MAX_LOAD = 0.95;     // Of the slots, when sized for expectedSize
+    private static final int MAX_KICKS = 500;        // Moves before an add gives up
+    private static final int EMPTY = 0;              // The fingerprint of an empty slot
+    private static final int FP_MASK = 0xFFFF;
+    private static final long LSBS = 0x0001000100010001L;
+    private static final long MSBS = 0x8000800080008000L;
+
+    private final HashFamily<? super AnyType> hashFunctions;
+    private final long [ ] buckets;   // SLOTS fingerprints each, 16 bits apiece
+    private final int mask;           // buckets.length - 1
+    private int victim;               // A fingerprint with no room, or EMPTY
+    private int victimBucket;         // One of its buckets
+    private int theSize;
+    private int random;               // State of nextRandom
+}
@@ -0,0 +1,213 @@
+package hashTable;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// CuckooHashMap class
+//
+// CONSTRUCTION: a hashing function family and
+//               an approximate initial size or default of 101,
+//               or a LoadPolicy,
+//               and optionally a TableSizing scheme (default PRIME)
+//               and a number of slots per bucket (default 1)
+//               and incremental resizing (default off)
+//
+// ******************PUBLIC OPERATIONS*********************
+// All of the operations of CuckooHashTable, plus
+// ValueType get( k )                  --> Return the value of k, or null
+// ValueType put( k, v )               --> Map k to v, return old value
+// ValueType putIfAbsent( k, v )       --> Map k to v unless k has a value
+// ValueType computeIfAbsent( k, f )   --> Map k to f( k ) unless k has a value
+// ValueType merge( k, v, f )          --> Combine v into the value of k
+
+/**
+ * Cuckoo hash table that maps each item to a value.
+ * The values are kept in an array parallel to the items and move with
+ * them during displacement, so every operation costs a single probe.
+ * The operations follow the contracts of the same methods of java.util.Map.
+ */
+public class CuckooHashMap<AnyType, ValueType> extends CuckooHashTable<AnyType>
+{
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf )
+    {
+        super( hf );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     * @param size the approximate initial size.
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf, int size )
+    {
+        super( hf, size );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     * @param size the approximate initial size.
+     * @param sizing how the array is sized and indexed.
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf, int size, TableSizing sizing )
+    {
+        super( hf, size, sizing );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     * @param size the approximate initial size.
+     * @param sizing how the number of buckets is chosen and indexed.
+     * @param slotsPerBucket the number of items each bucket holds.
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf, int size, TableSizing sizing, int slotsPerBucket )
+    {
+        super( hf, size, sizing, slotsPerBucket );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     * @param size the approximate initial size.
+     * @param sizing how the number of buckets is chosen and indexed.
+     * @param slotsPerBucket the number of items each bucket holds.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf, int size, TableSizing sizing, int slotsPerBucket,
+                          boolean incremental )
+    {
+        super( hf, size, sizing, slotsPerBucket, incremental );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param hf the hash family
+     * @param policy when the table grows and shrinks.
+     * @param sizing how the number of buckets is chosen and indexed.
+     * @param slotsPerBucket the number of items each bucket holds.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public CuckooHashMap( HashFamily<? super AnyType> hf, LoadPolicy policy, TableSizing sizing,
+                          int slotsPerBucket, boolean incremental )
+    {
+        super( hf, policy, sizing, slotsPerBucket, incremental );
+    }
+
+    /**
+     * Get the value of a key.
+     * @param key the key to search for.
+     * @return the value, or null if the key is not present.
+     */
+    public ValueType get( AnyType key )
+    {
+        int pos = findPos( key );
+        return pos == -1 ? null : value( pos );
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value, or null if there was none.
+     */
+    public ValueType put( AnyType key, ValueType value )
+    {
+        int pos = findPos( key );
+        if( pos == -1 )
+        {
+            insertAbsent( key, value );
+            return null;
+        }
+
+        ValueType old = value( pos );
+        setValueAt( pos, value );
+        return old;
+    }
+
+    /**
+     * Map a key to a value unless it already has a non-null value.
+     * @param key the key.
+     * @param value the value.
+     * @return the existing value, or null if the value was stored.
+     */
+    public ValueType putIfAbsent( AnyType key, ValueType value )
+    {
+        int pos = findPos( key );
+        if( pos == -1 )
+        {
+            insertAbsent( key, value );
+            return null;
+        }
+
+        ValueType old = value( pos );
+        if( old == null )
+            setValueAt( pos, value );
+        return old;
+    }
+
+    /**
+     * Map a key to a computed value unless it already has a non-null value.
+     * The function must not modify this map.
+     * @param key the key.
+     * @param f the function computing the value; a null result stores nothing.
+     * @return the existing or computed value.
+     */
+    public ValueType computeIfAbsent( AnyType key, Function<? super AnyType, ? extends ValueType> f )
+    {
+        int pos = findPos( key );
+        if( pos != -1 && value( pos ) != null )
+            return value( pos );
+
+        ValueType value = f.apply( key );
+        if( value == null )
+            return null;
+
+        if( pos == -1 )
+            insertAbsent( key, value );
+        else
+            setValueAt( pos, value );
+        return value;
+    }
+
+    /**
+     * Store a value for a key, or combine it with the existing value.
+     * The function must not modify this map.
+     * @param key the key.
+     * @param value the value to store or combine, not null.
+     * @param f the function combining the old and new values;
+     *          a null result removes the key.
+     * @return the new value, or null if the key was removed.
+     */
+    public ValueType merge( AnyType key, ValueType value,
+                            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> f )
+    {
+        if( value == null )
+            throw new NullPointerException( "value" );
+
+        int pos = findPos( key );
+        if( pos == -1 )
+        {
+            insertAbsent( key, value );
+            return value;
+        }
+
+        ValueType old = value( pos );
+        ValueType merged = old == null ? value : f.apply( old, value );
+        if( merged == null )
+            removeAt( pos );
+        else
+            setValueAt( pos, merged );
+        return merged;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private ValueType value( int pos )
+    {
+        return (ValueType) valueAt( pos );
+    }
+}
@@ -1,30 +1,86 @@
 package hashTable;
 
 import java.awt.font.NumericShaper;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Enumeration;
-import java.util.Random;
-
-import static hashTable.GenerateRandomString.genRandStr;
+import java.util.Spliterator;
 
 //Cuckoo Hash table class
 //
 //CONSTRUCTION: a hashing function family and
-//            an approximate initial size or default of 101
+//            an approximate initial size or default of 101,
+//            or a LoadPolicy (default below),
+//            and optionally a TableSizing scheme (default PRIME)
+//            and a number of slots per bucket (default 1)
+//            and incremental resizing (default off)
 //
 //******************PUBLIC OPERATIONS*********************
 //bool insert( x )       --> Insert x
 //bool remove( x )       --> Remove x
 //bool contains( x )     --> Return true if x is present
+//int  insertAll( c )    --> Insert the items of c, return number inserted
+//int  removeAll( c )    --> Remove the items of c, return number removed
+//bool containsAll( c )  --> Return true if every item of c is present
 //void makeEmpty( )      --> Remove all items
 //int  size( )           --> Return number of items
+//Stream stream( )       --> Return a stream of the items; also iterator( ),
+//                           spliterator( ) and parallelStream( )
+//void setMetrics( m )   --> Record what the table does in m, or nothing if null
 
 
 /**
 * Cuckoo hash table implementation of hash tables.
+* With more than one slot per bucket, each hash function picks a
+* bucket of adjacent cells and the item may go in any of them, so
+* the table can fill far beyond the one-slot limit of MAX_LOAD
+* before it needs to grow, and a lookup still touches at most one
+* short run of memory per hash function.
+* <p>
+* An item whose buckets are all full makes room by moving other items
+* to their other buckets. A breadth-first search finds the shortest
+* such chain of moves that ends in an empty cell, looking at no more
+* than MAX_SEARCH buckets. Only if there is none does the item go in
+* a stash of STASH_SIZE cells, which lookups check after the buckets,
+* and only when the stash is full too does the table rehash. Stashed
+* items move back into the buckets when a remove makes room, and at
+* the next resize.
+* <p>
+* Each cell also keeps the hash of its item by the function that
+* placed it there, and which function that was. A lookup compares
+* them before calling equals: an item can only be found in the
+* bucket its own function picks, so cells placed by another function
+* are passed over. Growing the table tries each item's saved hash
+* first and hashes it again only if that bucket is full, and moving
+* an item during insertion reuses the hashes the search computed.
+* <p>
+* In incremental mode growing the table does not move every item at
+* once: the old array stays live, each insert or remove moves the
+* items of the next MIGRATION_STEP cells, and lookups check the old
+* array after the new one. Drawing new hash functions still moves
+* everything at once, since the old positions depend on the old
+* functions; a pending migration is finished first.
+* <p>
+* A resize never goes through insert: items are placed straight into
+* the new array by their saved hashes, and placing one never starts
+* another resize. Only an item that finds no room even in the stash
+* makes the resize start over, with new hash functions, and after
+* ALLOWED_REHASHES such failures in a longer array, so a resize is a
+* single linear pass unless the functions are genuinely bad.
+* <p>
+* The bulk operations take a collection or an array. insertAll grows
+* the table once, up front, to hold all its items, instead of
+* growing again and again as they arrive.
+* <p>
+* A LoadPolicy sets the load at which the table grows, how much it
+* grows, and whether it shrinks once enough items are removed. The
+* default grows a one-slot table at MAX_LOAD to 1 / MAX_LOAD times its
+* length, and a table with larger buckets at its own limit to twice
+* its length. Insertions that fail force the table to grow whatever
+* the policy says.
 * @author Mark Allen Weiss
 */
-public class CuckooHashTable<AnyType>
+public class CuckooHashTable<AnyType> implements HashTable<AnyType>
 {
  /**
   * Construct the hash table.
@@ -42,65 +98,313 @@ public class CuckooHashTable<AnyType>
   */
  public CuckooHashTable( HashFamily<? super AnyType> hf, int size )
  {
-     allocateArray( nextPrime( size ) );
-     doClear( );
+     this( hf, size, TableSizing.PRIME );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param hf the hash family
+  * @param size the approximate initial size.
+  * @param sizing how the array is sized and indexed.
+  */
+ public CuckooHashTable( HashFamily<? super AnyType> hf, int size, TableSizing sizing )
+ {
+     this( hf, size, sizing, 1 );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param hf the hash family
+  * @param size the approximate initial size.
+  * @param sizing how the number of buckets is chosen and indexed.
+  * @param slotsPerBucket the number of items each bucket holds.
+  */
+ public CuckooHashTable( HashFamily<? super AnyType> hf, int size, TableSizing sizing, int slotsPerBucket )
+ {
+     this( hf, size, sizing, slotsPerBucket, false );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param hf the hash family
+  * @param size the approximate initial size.
+  * @param sizing how the number of buckets is chosen and indexed.
+  * @param slotsPerBucket the number of items each bucket holds.
+  * @param incremental true to spread each resize over later operations.
+  */
+ public CuckooHashTable( HashFamily<? super AnyType> hf, int size, TableSizing sizing, int slotsPerBucket,
+                         boolean incremental )
+ {
+     this( hf, size, sizing, slotsPerBucket, incremental, defaultPolicy( slotsPerBucket ) );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param hf the hash family
+  * @param policy when the table grows and shrinks.
+  */
+ public CuckooHashTable( HashFamily<? super AnyType> hf, LoadPolicy policy )
+ {
+     this( hf, policy, TableSizing.PRIME, 1, false );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param hf the hash family
+  * @param policy when the table grows and shrinks.
+  * @param sizing how the number of buckets is chosen and indexed.
+  * @param slotsPerBucket the number of items each bucket holds.
+  * @param incremental true to spread each resize over later operations.
+  */
+ public CuckooHashTable( HashFamily<? super AnyType> hf, LoadPolicy policy, TableSizing sizing,
+                         int slotsPerBucket, boolean incremental )
+ {
+     this( hf, policy.initialLength( DEFAULT_TABLE_SIZE ), sizing, slotsPerBucket, incremental, policy );
+ }
+
+ /**
+  * Internal constructor for all the others.
+  */
+ private CuckooHashTable( HashFamily<? super AnyType> hf, int size, TableSizing sizing, int slotsPerBucket,
+                          boolean incremental, LoadPolicy policy )
+ {
+     if( slotsPerBucket < 1 )
+         throw new IllegalArgumentException( "slotsPerBucket: " + slotsPerBucket );
+     if( policy.getMaxLoad( ) >= 1 )
+         throw new IllegalArgumentException( "maxLoad: " + policy.getMaxLoad( ) );
+
+     this.sizing = sizing;
+     this.slotsPerBucket = slotsPerBucket;
+     this.incremental = incremental;
+     this.policy = policy;
+     maxLoad = policy.getMaxLoad( );
      hashFunctions = hf;
      numHashFunctions = hf.getNumberOfFunctions( );
+     if( numHashFunctions > Byte.MAX_VALUE )
+         throw new IllegalArgumentException( "Too many hash functions: " + numHashFunctions );
+
+     minLength = sizing.capacity( ( size + slotsPerBucket - 1 ) / slotsPerBucket ) * slotsPerBucket;
+     allocateArray( minLength / slotsPerBucket );
+     stash = newArray( STASH_SIZE );
+     stashVals = new Object[ STASH_SIZE ];
+     doClear( );
  }
 
- private Random r = new Random( );
- 
- private static final double MAX_LOAD = 0.40;
+ private static final double MAX_LOAD = 0.40;            // With one slot per bucket
+ private static final double TWO_SLOT_MAX_LOAD = 0.85;
+ private static final double MULTI_SLOT_MAX_LOAD = 0.95;  // With four or more
  private static final int ALLOWED_REHASHES = 1;
  
  private int rehashes = 0;
-   
- private boolean insertHelper1( AnyType x )
+
+ /**
+  * Internal method to insert an item known not to be present,
+  * drawing new hash functions or growing the table until it fits.
+  * @param x the item to insert.
+  * @param value the value stored alongside x.
+  * @return true.
+  */
+ private boolean insertHelper1( AnyType x, Object value )
  {
-     final int COUNT_LIMIT = 100;
-     
-     while( true )
+     while( !place( x, value, -1, 0 ) )
+     {
+         if( ++rehashes > ALLOWED_REHASHES )
+         {
+             if( metrics != null )
+                 metrics.recordForcedExpansion( );
+             expand( );      // Make the table bigger
+             rehashes = 0;
+         }
+         else
+             rehash( );
+     }
+
+     currentSize++;
+     return true;
+ }
+
+ /**
+  * Internal method to put an item known not to be present into the
+  * array: in an empty cell of one of its buckets, else by moving
+  * other items out of the way, else in the stash. It never resizes
+  * the table, so it is safe in the middle of a migration.
+  * @param x the item to place.
+  * @param value the value stored alongside x.
+  * @param which a hash function whose hash of x is known, or -1.
+  *        Its bucket is tried first, then the others in turn.
+  * @param hashVal the hash of x by that function.
+  * @return false if there is no room anywhere.
+  */
+ private boolean place( AnyType x, Object value, int which, int hashVal )
+ {
+     long h64 = which == -1 ? hashFunctions.hash64( x ) : 0;
+     for( int k = 0; k < numHashFunctions; k++ )
      {
-         int lastPos = -1;
-         int pos;
+         int i = which == -1 ? k : ( which + k ) % numHashFunctions;
+         if( k == 1 && which != -1 )
+             h64 = hashFunctions.hash64( x );    // The known hash was not enough
+         int h = i == which ? hashVal : hashFunctions.hash( x, h64, i );
+         int pos = emptySlot( myhash( h ) );
 
-         for( int count = 0; count < COUNT_LIMIT; count++ )
+         if( pos != -1 )
          {
-             for( int i = 0; i < numHashFunctions; i++ )
-             {
-                 pos = myhash( x, i );
-
-                 if( array[ pos ] == null )
-                 {
-                     array[ pos ] = x;
-                     currentSize++;
-                     return true;
-                 }
-             }
+             setCell( pos, x, value, i, h );
+             if( metrics != null )
+                 metrics.recordPlacement( 0 );
+             return true;
+         }
+     }
+
+         // None of the spots are available. Move others out of the way
+     int moves = cuckooPath( x, value );
+     if( moves != -1 )
+     {
+         if( metrics != null )
+             metrics.recordPlacement( moves );
+         return true;
+     }
+
+     if( metrics != null )
+         metrics.recordFailedPlacement( );
+
+     if( stashSize < STASH_SIZE )
+     {
+         stash[ stashSize ] = x;
+         stashVals[ stashSize++ ] = value;
+         if( metrics != null )
+             metrics.recordStashed( );
+         return true;
+     }
+
+     return false;
+ }
+
+ /**
+  * Internal method to fill a cell.
+  * @param which the hash function that picks the bucket of pos for x.
+  * @param hashVal the hash of x by that function.
+  */
+ private void setCell( int pos, AnyType x, Object value, int which, int hashVal )
+ {
+     array[ pos ] = x;
+     vals[ pos ] = value;
+     funcs[ pos ] = (byte) which;
+     hashes[ pos ] = hashVal;
+ }
+ 
+ /**
+  * Internal method to make room for an item whose buckets are all
+  * full, by a breadth-first search for the shortest chain of moves
+  * that ends in an empty cell. Each bucket searched is a node; its
+  * children are the other buckets of its items. No bucket appears
+  * twice on one chain, so the moves never disturb one another. They
+  * are made from the empty cell back, and x goes in the cell freed
+  * in one of its own buckets.
+  * @param x the item to insert.
+  * @param value the value stored alongside x.
+  * @return the number of items moved, or -1 if no empty cell is
+  *         within MAX_SEARCH buckets.
+  */
+ private int cuckooPath( AnyType x, Object value )
+ {
+     if( searchBuckets == null )
+     {
+         searchBuckets = new int[ MAX_SEARCH ];
+         searchParents = new int[ MAX_SEARCH ];
+         searchCells = new int[ MAX_SEARCH ];
+         searchFuncs = new byte[ MAX_SEARCH ];
+         searchHashes = new int[ MAX_SEARCH ];
+     }
+
+     int tail = 0;
+     long h64 = hashFunctions.hash64( x );
+     for( int i = 0; i < numHashFunctions; i++ )
+     {
+         int h = hashFunctions.hash( x, h64, i );
+         searchBuckets[ tail ] = myhash( h );
+         searchFuncs[ tail ] = (byte) i;
+         searchHashes[ tail ] = h;
+         searchParents[ tail++ ] = -1;
+     }
 
-             // none of the spots are available. Kick out a random one
-             int i = 0;
-             do
+     for( int node = 0; node < tail; node++ )
+     {
+         int start = searchBuckets[ node ] * slotsPerBucket;
+         for( int pos = start; pos < start + slotsPerBucket; pos++ )
+         {
+             long posHash = hashFunctions.hash64( array[ pos ] );
+             for( int i = 0; i < numHashFunctions && tail < MAX_SEARCH; i++ )
              {
-                 pos = myhash( x, r.nextInt( numHashFunctions ) );
-             } while( pos == lastPos && i++ < 5 );
+                 if( i == funcs[ pos ] )
+                     continue;         // The bucket it is in
 
-             AnyType tmp = array[ lastPos = pos ];
-             array[ pos ] = x;
-             x = tmp;
+                 int h = hashFunctions.hash( array[ pos ], posHash, i );
+                 int bucket = myhash( h );
+                 if( onChain( node, bucket ) )
+                     continue;
+
+                 int free = emptySlot( bucket );
+                 if( free != -1 )
+                     return moveAlong( node, pos, free, i, h, x, value );
+
+                 searchBuckets[ tail ] = bucket;
+                 searchFuncs[ tail ] = (byte) i;
+                 searchHashes[ tail ] = h;
+                 searchParents[ tail ] = node;
+                 searchCells[ tail++ ] = pos;
+             }
          }
+     }
 
-         if( ++rehashes > ALLOWED_REHASHES )
+     return -1;
+ }
+
+ /**
+  * Internal method to test if a bucket is on the chain of the
+  * search from its root to a node.
+  */
+ private boolean onChain( int node, int bucket )
+ {
+     for( ; node != -1; node = searchParents[ node ] )
+         if( searchBuckets[ node ] == bucket )
+             return true;
+
+     return false;
+ }
+
+ /**
+  * Internal method to make the moves of a chain found by cuckooPath:
+  * the item at pos goes to the empty cell free, then each item on the
+  * way back to the root goes to the cell just vacated, and x goes in
+  * the last one.
+  * @param node the node whose bucket holds pos.
+  * @param which the hash function that picks the bucket of free
+  *        for the item at pos.
+  * @param hashVal the hash of that item by that function.
+  * @return the number of items moved.
+  */
+ private int moveAlong( int node, int pos, int free, int which, int hashVal, AnyType x, Object value )
+ {
+     int moves = 0;
+     for( int to = free; ; node = searchParents[ node ] )
+     {
+         setCell( to, array[ pos ], vals[ pos ], which, hashVal );
+         moves++;
+         to = pos;
+
+             // The next item moves into the bucket of node
+         which = searchFuncs[ node ];
+         hashVal = searchHashes[ node ];
+         if( searchParents[ node ] == -1 )
          {
-             expand( );      // Make the table bigger
-             rehashes = 0;
+             setCell( to, x, value, which, hashVal );
+             return moves;
          }
-         else
-             rehash( );
+         pos = searchCells[ node ];
      }
  }
- 
- private boolean insertHelper2( AnyType x )
+
+ private boolean insertHelper2( AnyType x, Object value )
  {
      final int COUNT_LIMIT = 100;
      
@@ -108,15 +412,27 @@ public class CuckooHashTable<AnyType>
      {
          for( int count = 0; count < COUNT_LIMIT; count++ )
          {
-             int pos = myhash( x, count % numHashFunctions );
+             int which = count % numHashFunctions;
+             int h = hashFunctions.hash( x, hashFunctions.hash64( x ), which );
+             int bucket = myhash( h );
+             int pos = emptySlot( bucket );
+             if( pos == -1 )
+                 pos = bucket * slotsPerBucket + count / numHashFunctions % slotsPerBucket;
 
              AnyType tmp = array[ pos ];
-             array[ pos ] = x;
+             Object tmpValue = vals[ pos ];
+             setCell( pos, x, value, which, h );
 
              if( tmp == null )
+             {
+                 currentSize++;
                  return true;
+             }
              else
+             {
                  x = tmp;
+                 value = tmpValue;
+             }
          }
      
          if( ++rehashes > ALLOWED_REHASHES )
@@ -139,48 +455,321 @@ public class CuckooHashTable<AnyType>
      if( contains( x ) )
          return false;
      
-     if( currentSize >= array.length * MAX_LOAD )
+     return insertAbsent( x, null );
+ }
+
+ /**
+  * Insert every item of a collection, as insert would one by one.
+  * @param items the items to insert.
+  * @return the number of items inserted.
+  */
+ public int insertAll( Collection<? extends AnyType> items )
+ {
+     reserve( items.size( ) );
+
+     int inserted = 0;
+     for( AnyType x : items )
+         if( insert( x ) )
+             inserted++;
+
+     return inserted;
+ }
+
+ /**
+  * Insert every item of an array, as insert would one by one.
+  * @param items the items to insert.
+  * @return the number of items inserted.
+  */
+ public int insertAll( AnyType [ ] items )
+ {
+     reserve( items.length );
+
+     int inserted = 0;
+     for( AnyType x : items )
+         if( insert( x ) )
+             inserted++;
+
+     return inserted;
+ }
+
+ /**
+  * Remove every item of a collection, as remove would one by one.
+  * @param items the items to remove.
+  * @return the number of items removed.
+  */
+ public int removeAll( Collection<? extends AnyType> items )
+ {
+     int removed = 0;
+     for( AnyType x : items )
+         if( remove( x ) )
+             removed++;
+
+     return removed;
+ }
+
+ /**
+  * Remove every item of an array, as remove would one by one.
+  * @param items the items to remove.
+  * @return the number of items removed.
+  */
+ public int removeAll( AnyType [ ] items )
+ {
+     int removed = 0;
+     for( AnyType x : items )
+         if( remove( x ) )
+             removed++;
+
+     return removed;
+ }
+
+ /**
+  * Find every item of a collection in the hash table.
+  * @param items the items to search for.
+  * @return true if all of them are present.
+  */
+ public boolean containsAll( Collection<? extends AnyType> items )
+ {
+     for( AnyType x : items )
+         if( !contains( x ) )
+             return false;
+
+     return true;
+ }
+
+ /**
+  * Find every item of an array in the hash table.
+  * @param items the items to search for.
+  * @return true if all of them are present.
+  */
+ public boolean containsAll( AnyType [ ] items )
+ {
+     for( AnyType x : items )
+         if( !contains( x ) )
+             return false;
+
+     return true;
+ }
+
+ /**
+  * Internal method to grow the table, if needed, so that n more
+  * items fit below the maximum load. The resize is done at once,
+  * even in incremental mode.
+  * @param n the number of items about to be inserted.
+  */
+ private void reserve( int n )
+ {
+     if( currentSize + n >= array.length * maxLoad )
+         rehash( (int) ( ( currentSize + n ) / maxLoad ) + 1, false );
+ }
+
+ /**
+  * Internal method to insert an item known not to be present.
+  * @param x the item to insert.
+  * @param value the value stored alongside x.
+  * @return true.
+  */
+ boolean insertAbsent( AnyType x, Object value )
+ {
+     if( oldArray != null )
+         migrate( MIGRATION_STEP );
+
+     if( currentSize >= maxSize )
          expand( );
      
-     return insertHelper1( x );
+     return insertHelper1( x, value );
  }
 
- private int myhash( AnyType x, int which )
+ /**
+  * Internal method to choose the bucket of an item.
+  * @param hashVal the hash of the item by one of the functions.
+  * @return the bucket; its cells start at bucket * slotsPerBucket.
+  */
+ private int myhash( int hashVal )
  {
-     int hashVal = hashFunctions.hash( x, which );
-     
-     hashVal %= array.length;
-     if( hashVal < 0 )
-         hashVal += array.length;
-     
-     return hashVal;
+     return sizing.index( hashVal, numBuckets );
+ }
+
+ /**
+  * Internal method to find a free cell in a bucket.
+  * @param bucket the bucket.
+  * @return the position of the first empty cell, or -1 if the bucket is full.
+  */
+ private int emptySlot( int bucket )
+ {
+     int start = bucket * slotsPerBucket;
+     for( int pos = start; pos < start + slotsPerBucket; pos++ )
+         if( array[ pos ] == null )
+             return pos;
+
+     return -1;
  }
      
  private void expand( )
  {
-     rehash( (int) ( array.length / MAX_LOAD ) );
+     rehash( policy.grownLength( array.length ), incremental );
+ }
+
+ /**
+  * The policy of a table built without one.
+  */
+ private static LoadPolicy defaultPolicy( int slotsPerBucket )
+ {
+     if( slotsPerBucket == 1 )
+         return new LoadPolicy( MAX_LOAD, 1 / MAX_LOAD, 0, 0 );
+     return new LoadPolicy( maxLoad( slotsPerBucket ) );   // 1 / maxLoad would barely grow
+ }
+
+ /**
+  * The load at which a table with this many slots per bucket grows.
+  * A random walk insertion starts to fail often a little past these.
+  */
+ private static double maxLoad( int slotsPerBucket )
+ {
+     if( slotsPerBucket == 1 )
+         return MAX_LOAD;
+     return slotsPerBucket == 2 ? TWO_SLOT_MAX_LOAD : MULTI_SLOT_MAX_LOAD;
  }
  
  private void rehash( )
  {
-     //System.out.println( "NEW HASH FUNCTIONS " + array.length );
-     hashFunctions.generateNewFunctions( );
-     rehash( array.length );
+     rebuild( array.length, true );
  }
  
- private void rehash( int newLength )
+ /**
+  * Internal method to start moving every item into a new array.
+  * @param newLength the minimum length of the new array.
+  * @param incrementally true to leave the moving to later operations.
+  */
+ private void rehash( int newLength, boolean incrementally )
  {
-     //System.out.println( "REHASH: " + array.length + " " + newLength + " " + currentSize );
-     AnyType [ ] oldArray = array;    // Create a new double-sized, empty table
-         
-     allocateArray( nextPrime( newLength ) );
-     
-     currentSize = 0;
-     
-         // Copy table over
-     for( AnyType str : oldArray )
-         if( str != null )
-             insert( str );
+     if( !incrementally )
+     {
+         rebuild( newLength, false );
+         return;
+     }
+
+     long startTime = metrics != null ? System.nanoTime( ) : 0;
+     if( oldArray != null )
+         migrate( oldArray.length );   // Finish the previous resize first
+
+     oldArray = array;
+     oldVals = vals;
+     oldFuncs = funcs;
+     oldHashes = hashes;
+     oldBuckets = numBuckets;
+     migrated = 0;
+     allocateArray( sizing.capacity( ( newLength + slotsPerBucket - 1 ) / slotsPerBucket ) );
+
+         // The stash stays, but its items will mostly fit now
+     unstash( );
+
+     if( metrics != null )
+         metrics.recordRehash( System.nanoTime( ) - startTime );
+ }
+
+ /**
+  * Internal method to move every item into a new array at once:
+  * those of the array, of the old array if a migration is pending,
+  * and of the stash. Each is placed directly, by its saved hash
+  * unless the functions change. If one finds no room, the new array
+  * is dropped and the items are placed again, from where they still
+  * are, with new functions, and after ALLOWED_REHASHES such tries in
+  * a longer array. Nothing here starts another resize.
+  * @param newLength the minimum length of the new array.
+  * @param newFunctions true to draw new hash functions first.
+  */
+ private void rebuild( int newLength, boolean newFunctions )
+ {
+     long startTime = metrics != null ? System.nanoTime( ) : 0;
+     AnyType [ ] items = array;
+     Object [ ] itemVals = vals;
+     byte [ ] itemFuncs = funcs;
+     int [ ] itemHashes = hashes;
+     AnyType [ ] stashed = Arrays.copyOf( stash, stashSize );
+     Object [ ] stashedVals = Arrays.copyOf( stashVals, stashSize );
+
+     for( int failures = 0; ; failures++ )
+     {
+         if( newFunctions )
+         {
+             hashFunctions.generateNewFunctions( );
+             if( metrics != null )
+                 metrics.recordNewHashFunctions( );
+         }
+
+         allocateArray( sizing.capacity( ( newLength + slotsPerBucket - 1 ) / slotsPerBucket ) );
+         clearStash( );
+         if( placeAll( items, itemVals, newFunctions ? null : itemFuncs, itemHashes )
+                 && ( oldArray == null
+                      || placeAll( oldArray, oldVals, newFunctions ? null : oldFuncs, oldHashes ) )
+                 && placeAll( stashed, stashedVals, null, null ) )
+             break;
+
+         if( failures >= ALLOWED_REHASHES )
+         {
+             if( metrics != null )
+                 metrics.recordForcedExpansion( );
+             newLength = policy.grownLength( array.length );
+         }
+         newFunctions = true;
+     }
+
+     oldArray = null;
+     oldVals = null;
+     oldFuncs = null;
+     oldHashes = null;
+
+     if( metrics != null )
+         metrics.recordRehash( System.nanoTime( ) - startTime );
+ }
+
+ /**
+  * Internal method to place every item of an array, for rebuild.
+  * @param itemFuncs the function that placed each item, or null if
+  *        its saved hash is of other functions.
+  * @return false if one finds no room.
+  */
+ private boolean placeAll( AnyType [ ] items, Object [ ] itemVals, byte [ ] itemFuncs, int [ ] itemHashes )
+ {
+     for( int i = 0; i < items.length; i++ )
+         if( items[ i ] != null
+                 && !place( items[ i ], itemVals[ i ], itemFuncs == null ? -1 : itemFuncs[ i ],
+                            itemHashes == null ? 0 : itemHashes[ i ] ) )
+             return false;
+
+     return true;
+ }
+
+ /**
+  * Internal method to move the items of the next cells of the old
+  * array into the current one. An item leaves the old array only
+  * once it is placed; if one finds no room, rebuild finishes the
+  * resize with new functions.
+  * @param cells the maximum number of cells to move.
+  */
+ private void migrate( int cells )
+ {
+     int end = Math.min( migrated + cells, oldArray.length );
+     for( ; migrated < end; migrated++ )
+         if( oldArray[ migrated ] != null )
+         {
+             if( !place( oldArray[ migrated ], oldVals[ migrated ],
+                         oldFuncs[ migrated ], oldHashes[ migrated ] ) )
+             {
+                 rebuild( array.length, true );
+                 return;
+             }
+             oldArray[ migrated ] = null;
+             oldVals[ migrated ] = null;
+         }
+
+     if( migrated == oldArray.length )
+     {
+         oldArray = null;
+         oldVals = null;
+         oldFuncs = null;
+         oldHashes = null;
+     }
  }
 
  
@@ -195,7 +784,8 @@ public class CuckooHashTable<AnyType>
  
  /**
   * Gets the length (potential capacity) of the table.
-  * @return length of the internal array in the hash table.
+  * @return length of the internal array in the hash table,
+  *         which is the number of buckets times the slots per bucket.
   */
  public int capacity( )
  {
@@ -203,22 +793,74 @@ public class CuckooHashTable<AnyType>
  }
  
  /**
-  * Method that searches all hash function places.
+  * Method that searches all hash function places, then the stash.
+  * An item in the stash is reported as a position from array.length
+  * on. While a resize is in progress, an item not moved yet is found
+  * in the old array and reported as a position below -1.
   * @param x the item to search for.
   * @return the position where the search terminates, or -1 if not found.
   */
- private int findPos( AnyType x )
+ int findPos( AnyType x )
+ {
+     long h64 = hashFunctions.hash64( x );
+     int pos = findPos( array, funcs, hashes, numBuckets, x, h64 );
+
+     if( pos == -1 )
+         for( int i = 0; i < stashSize; i++ )
+             if( stash[ i ].equals( x ) )
+                 return array.length + i;
+
+     if( pos == -1 && oldArray != null )
+     {
+         pos = findPos( oldArray, oldFuncs, oldHashes, oldBuckets, x, h64 );
+         if( pos != -1 )
+             return oldPos( pos );
+     }
+
+     return pos;
+ }
+
+ /**
+  * Internal method to search all hash function places in one array.
+  * @param table the array to search.
+  * @param tableFuncs the function that placed each item of table.
+  * @param tableHashes the hash of each item by that function.
+  * @param buckets the number of buckets of the array.
+  * @param x the item to search for.
+  * @param h64 the hash64 of x.
+  * @return the position of x, or -1 if not found.
+  */
+ private int findPos( AnyType [ ] table, byte [ ] tableFuncs, int [ ] tableHashes, int buckets, AnyType x, long h64 )
  {
      for( int i = 0; i < numHashFunctions; i++ )
      {
-         int pos = myhash( x, i );
-         if( array[ pos ] != null && array[ pos ].equals( x ) )
-             return pos;
+         int h = hashFunctions.hash( x, h64, i );
+         int start = sizing.index( h, buckets ) * slotsPerBucket;
+         for( int pos = start; pos < start + slotsPerBucket; pos++ )
+             if( tableHashes[ pos ] == h && tableFuncs[ pos ] == i &&
+                     table[ pos ] != null && table[ pos ].equals( x ) )
+             {
+                 if( metrics != null )
+                     metrics.recordSearch( i * slotsPerBucket + pos - start + 1 );
+                 return pos;
+             }
      }
      
+     if( metrics != null )
+         metrics.recordSearch( numHashFunctions * slotsPerBucket );
      return -1;
  }
 
+ /**
+  * Internal method to convert between a position in the old array
+  * and the value findPos reports for it, which is below -1.
+  * The conversion is its own inverse.
+  */
+ private static int oldPos( int pos )
+ {
+     return -2 - pos;
+ }
+
  /**
   * Remove from the hash table.
   * @param x the item to remove.
@@ -229,12 +871,178 @@ public class CuckooHashTable<AnyType>
      int pos = findPos( x );
      
      if( pos != -1 )
+         removeAt( pos );
+     
+     return pos != -1;
+ }
+
+ /**
+  * Internal method to remove the item at a position found by findPos.
+  * @param pos the position of the item.
+  */
+ void removeAt( int pos )
+ {
+     if( pos >= array.length )
+         removeFromStash( pos - array.length );
+     else if( pos >= 0 )
      {
          array[ pos ] = null;
-         currentSize--;
+         vals[ pos ] = null;
+         if( stashSize > 0 )
+             unstash( );
      }
-     
-     return pos != -1;
+     else
+     {
+         oldArray[ oldPos( pos ) ] = null;
+         oldVals[ oldPos( pos ) ] = null;
+     }
+     currentSize--;
+
+     if( currentSize < shrinkSize )
+         rehash( policy.shrunkLength( currentSize, minLength ), incremental );
+     else if( oldArray != null )
+         migrate( MIGRATION_STEP );
+ }
+
+ /**
+  * Internal method to get the value stored alongside an item.
+  * @param pos the position of the item, as found by findPos.
+  * @return the value.
+  */
+ Object valueAt( int pos )
+ {
+     if( pos >= array.length )
+         return stashVals[ pos - array.length ];
+     return pos >= 0 ? vals[ pos ] : oldVals[ oldPos( pos ) ];
+ }
+
+ /**
+  * Internal method to replace the value stored alongside an item.
+  * @param pos the position of the item, as found by findPos.
+  * @param value the new value.
+  */
+ void setValueAt( int pos, Object value )
+ {
+     if( pos >= array.length )
+         stashVals[ pos - array.length ] = value;
+     else if( pos >= 0 )
+         vals[ pos ] = value;
+     else
+         oldVals[ oldPos( pos ) ] = value;
+ }
+
+ /**
+  * Internal method to get the cells, for saving the table.
+  * A resize in progress is finished first, and the table is rebuilt
+  * until the stash is empty, so every item is here.
+  * @return the array of items, null for empty cells.
+  */
+ Object [ ] cells( )
+ {
+     if( oldArray != null )
+         migrate( oldArray.length );
+     while( stashSize > 0 )
+         rehash( );
+     return array;
+ }
+
+ /**
+  * Internal method to move stashed items into empty cells of their
+  * buckets, after a remove.
+  */
+ private void unstash( )
+ {
+     for( int s = stashSize - 1; s >= 0; s-- )
+     {
+         long h64 = hashFunctions.hash64( stash[ s ] );
+         for( int i = 0; i < numHashFunctions; i++ )
+         {
+             int h = hashFunctions.hash( stash[ s ], h64, i );
+             int pos = emptySlot( myhash( h ) );
+             if( pos != -1 )
+             {
+                 setCell( pos, stash[ s ], stashVals[ s ], i, h );
+                 removeFromStash( s );
+                 break;
+             }
+         }
+     }
+ }
+
+ /**
+  * Internal method to take an item out of the stash, filling its
+  * cell with the last one.
+  * @param s the cell of the stash.
+  */
+ private void removeFromStash( int s )
+ {
+     stash[ s ] = stash[ --stashSize ];
+     stashVals[ s ] = stashVals[ stashSize ];
+     stash[ stashSize ] = null;
+     stashVals[ stashSize ] = null;
+ }
+
+ private void clearStash( )
+ {
+     Arrays.fill( stash, null );
+     Arrays.fill( stashVals, null );
+     stashSize = 0;
+ }
+
+ /**
+  * Internal method to put an item straight into a cell, for
+  * restoring a saved table with the same length and hash functions.
+  * @param pos the cell, which must be empty.
+  * @param x the item.
+  */
+ void putAt( int pos, AnyType x )
+ {
+     long h64 = hashFunctions.hash64( x );
+     for( int i = 0; i < numHashFunctions; i++ )
+     {
+         int h = hashFunctions.hash( x, h64, i );
+         if( myhash( h ) == pos / slotsPerBucket )
+         {
+             setCell( pos, x, null, i, h );
+             currentSize++;
+             return;
+         }
+     }
+
+     throw new IllegalArgumentException( "Not a cell of its buckets: " + pos );
+ }
+
+ /**
+  * Start or stop recording metrics.
+  * @param m the metrics to update, or null to record nothing.
+  */
+ public void setMetrics( HashTableMetrics m )
+ {
+     metrics = m;
+ }
+
+ /**
+  * Get the metrics being recorded.
+  * @return the metrics, or null if none.
+  */
+ public HashTableMetrics getMetrics( )
+ {
+     return metrics;
+ }
+
+ HashFamily<? super AnyType> getHashFamily( )
+ {
+     return hashFunctions;
+ }
+
+ TableSizing getSizing( )
+ {
+     return sizing;
+ }
+
+ int getSlotsPerBucket( )
+ {
+     return slotsPerBucket;
  }
 
  /**
@@ -255,126 +1063,143 @@ public class CuckooHashTable<AnyType>
      doClear( );
  }
 
+ /**
+  * Make a spliterator over the items, split by ranges of the array;
+  * the stashed items come last. A resize in progress is finished first.
+  * @return the spliterator.
+  */
+ public Spliterator<AnyType> spliterator( )
+ {
+     if( oldArray != null )
+         migrate( oldArray.length );
+     AnyType [ ] stashed = Arrays.copyOf( stash, stashSize );
+     return new Cells<>( array, stashed, 0, array.length + stashed.length, currentSize );
+ }
+
+ /**
+  * A spliterator over a range of the cells of an array, followed
+  * by the stash.
+  */
+ private static final class Cells<AnyType> extends CellSpliterator<AnyType>
+ {
+     Cells( AnyType [ ] cells, AnyType [ ] stashed, int origin, int fence, long estimate )
+     {
+         super( origin, fence, estimate );
+         this.cells = cells;
+         this.stashed = stashed;
+     }
+
+     AnyType itemAt( int pos )
+     {
+         return pos < cells.length ? cells[ pos ] : stashed[ pos - cells.length ];
+     }
+
+     CellSpliterator<AnyType> split( int origin, int fence, long estimate )
+     {
+         return new Cells<>( cells, stashed, origin, fence, estimate );
+     }
+
+     private final AnyType [ ] cells;
+     private final AnyType [ ] stashed;
+ }
+
  private void doClear( )
  {
      currentSize = 0;
+     oldArray = null;
+     oldVals = null;
+     oldFuncs = null;
+     oldHashes = null;
+     clearStash( );
      for( int i = 0; i < array.length; i++ )
+     {
          array[ i ] = null;
+         vals[ i ] = null;
+     }
  }
  
 
  
  private static final int DEFAULT_TABLE_SIZE = 101;
+ private static final int MIGRATION_STEP = 8;   // Cells moved per update while resizing
+ private static final int STASH_SIZE = 4;       // Items that may fail to find a cell
+ private static final int MAX_SEARCH = 256;     // Buckets a search for room may visit
 
+ private final TableSizing sizing;     // How the buckets are counted and indexed
+ private final int slotsPerBucket;     // Adjacent cells per bucket
+ private final LoadPolicy policy;      // When the array grows and shrinks
+ private final double maxLoad;         // The load at which the table grows
+ private final int minLength;          // The initial length, below which it never shrinks
+ private int maxSize;                  // Size at which the array grows
+ private int shrinkSize;               // Size below which it shrinks, or 0
+ private int numBuckets;               // array.length / slotsPerBucket
+ private final boolean incremental;    // Resizes are spread over later operations
  private final HashFamily<? super AnyType> hashFunctions;
  private final int numHashFunctions;
  private AnyType [ ] array; // The array of elements
- private int currentSize;              // The number of occupied cells
+ private Object [ ] vals;   // The values, parallel to array
+ private byte [ ] funcs;    // The hash function that placed each item
+ private int [ ] hashes;    // The hash of each item by that function
+ private int currentSize;              // The number of items in both arrays
+ private AnyType [ ] oldArray;         // The array being moved out of, or null
+ private Object [ ] oldVals;           // The values, parallel to oldArray
+ private byte [ ] oldFuncs;            // The functions, parallel to oldArray
+ private int [ ] oldHashes;            // The hashes, parallel to oldArray
+ private int oldBuckets;               // The number of buckets of oldArray
+ private int migrated;                 // Cells of oldArray already moved
+ private HashTableMetrics metrics;     // What the table does, or null
+ private AnyType [ ] stash;            // Items with no room in their buckets
+ private Object [ ] stashVals;         // The values, parallel to stash
+ private int stashSize;                // The number of items in stash
+ private int [ ] searchBuckets;        // Buckets reached by cuckooPath, in order
+ private int [ ] searchParents;        // The node each was reached from, or -1
+ private int [ ] searchCells;          // The cell of that node whose item would move
+ private byte [ ] searchFuncs;         // The function that picks the bucket of each node
+ private int [ ] searchHashes;         // The hash by that function of the item that would move
 
  /**
   * Internal method to allocate array.
-  * @param arraySize the size of the array.
+  * @param buckets the number of buckets.
   */
- private void allocateArray( int arraySize )
+ private void allocateArray( int buckets )
  {
-     array = (AnyType[]) new Object[ arraySize ];
+     int arraySize = buckets * slotsPerBucket;
+     numBuckets = buckets;
+     array = newArray( arraySize );
+     vals = new Object[ arraySize ];
+     funcs = new byte[ arraySize ];
+     hashes = new int[ arraySize ];
+     maxSize = (int) Math.ceil( arraySize * maxLoad );
+     shrinkSize = policy.shrinkSize( arraySize, minLength );
  }
 
  /**
-  * Internal method to find a prime number at least as large as n.
-  * @param n the starting number (must be positive).
-  * @return a prime number larger than or equal to n.
+  * Internal method to allocate an array of items.
+  * @param length the length of the array.
   */
- protected static int nextPrime( int n )
+ @SuppressWarnings( "unchecked" )
+ private static <AnyType> AnyType [ ] newArray( int length )
  {
-     if( n % 2 == 0 )
-         n++;
-
-     for( ; !isPrime( n ); n += 2 )
-         ;
-
-     return n;
+     return (AnyType [ ]) new Object[ length ];
  }
 
  /**
-  * Internal method to test if a number is prime.
-  * Not an efficient algorithm.
-  * @param n the number to test.
-  * @return the result of the test.
+  * Internal method to find a prime number at least as large as n.
+  * @param n the starting number (must be positive).
+  * @return a prime number larger than or equal to n.
   */
- private static boolean isPrime( int n )
+ protected static int nextPrime( int n )
  {
-     if( n == 2 || n == 3 )
-         return true;
-
-     if( n == 1 || n % 2 == 0 )
-         return false;
-
-     for( int i = 3; i * i <= n; i += 2 )
-         if( n % i == 0 )
-             return false;
-
-     return true;
+     return TableSizing.PRIME.capacity( n );
  }
 
- // Simple main
- public static void main( String [ ] args )
+ // Simple main: benchmark this table, see HashTableBenchmark for options
+ public static void main( String [ ] args ) throws Exception
  {
-     final int NUMS = 16;
-
-     // Outer for loop for looping 15 times
-     for(int i = 1; i < NUMS; i++)
-     {
-         CuckooHashTable<String> H = new CuckooHashTable<>( new StringHashFamily( 3 ), 2000);
-
-         // Simple list for calculating average time for hash insertion
-         ArrayList<Double> timeElapsedInsertList = new ArrayList<Double>();
-
-         // list that will hold N number of random string for
-         // searching in the created hash later on section 2
-         ArrayList<String> listOfRandStr = new ArrayList<String>();
-
-         // Inner for loop for looping 2^i times
-         for(int j = 0; j < Math.pow(2, i); j++)
-         {
-             // Generating a random string list for part 2
-             listOfRandStr.add( genRandStr() );
-
-             double startTime = System.currentTimeMillis( );
-             H.insert( genRandStr() ); // Hash insertion
-             double endTime = System.currentTimeMillis( );
-             double timeElapsed = endTime - startTime;
-             timeElapsedInsertList.add(timeElapsed);
-         }
-
-         // Calculating average time elapsed
-         double totalTimeElapsed = 0;
-         for(int k = 0; k < timeElapsedInsertList.size(); k++)
-             totalTimeElapsed += timeElapsedInsertList.get(k);
-         System.out.println("Total time elapsed inserting: " + totalTimeElapsed);
-
-
-         // Simple list for calculating average time for hash search and delete
-         ArrayList<Double> timeElapsedSearchDeleteList = new ArrayList<Double>();
-
-         // Iterating over all the in the string list for searching in hash H
-         for (String str : listOfRandStr)
-         {
-             double startTime = System.currentTimeMillis( );
-             if ( H.contains( str ) )
-             {
-                 H.remove( str );
-             }
-             double endTime = System.currentTimeMillis( );
-             double timeElapsed = endTime - startTime;
-             timeElapsedSearchDeleteList.add(timeElapsed);
-         }
-
-         // Calculating average time elapsed
-         double totalTimeElapsedSearchDelete = 0;
-         for(int k = 0; k < timeElapsedSearchDeleteList.size(); k++)
-             totalTimeElapsedSearchDelete += timeElapsedSearchDeleteList.get(k);
-         System.out.println("Total time elapsed searching and deleting: " + totalTimeElapsedSearchDelete);
-     }
+     String [ ] benchmarkArgs = new String[ args.length + 2 ];
+     benchmarkArgs[ 0 ] = "-table";
+     benchmarkArgs[ 1 ] = "cuckoo";
+     System.arraycopy( args, 0, benchmarkArgs, 2, args.length );
+     HashTableBenchmark.main( benchmarkArgs );
  }
 }
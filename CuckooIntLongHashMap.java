@@ -0,0 +1,368 @@
+package hashTable;
+
+import java.util.Random;
+
+// CuckooIntLongHashMap class
+//
+// CONSTRUCTION: an approximate initial size or default of 16
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool put( k, v )       --> Map k to v
+// long get( k )          --> Return the value of k, or 0
+// long getOrDefault( k, d ) --> Return the value of k, or d
+// bool remove( k )       --> Remove k
+// bool containsKey( k )  --> Return true if k is present
+// void makeEmpty( )      --> Remove all entries
+// int  size( )           --> Return number of entries
+// int  capacity( )       --> Return length of internal arrays
+
+/**
+ * Cuckoo hash map from int keys to long values, with the keys stored
+ * unboxed in a primitive array and the values in a parallel array.
+ * A zero key cell is empty; the key zero itself is kept in a separate
+ * slot, so every int value can be used as a key.
+ * <p>
+ * The cells are grouped into buckets of SLOTS adjacent cells, and each
+ * of two seeded hash functions picks a bucket for a key, so a lookup
+ * reads at most two short runs of memory whatever the load. A key
+ * whose buckets are both full makes room by moving other keys to their
+ * other bucket, along the shortest chain of moves that ends in an
+ * empty cell, found by a breadth-first search of at most MAX_SEARCH
+ * cells. If there is none the map draws new seeds, and after
+ * ALLOWED_REHASHES such failures it grows instead.
+ */
+public class CuckooIntLongHashMap
+{
+    /**
+     * Construct the hash map.
+     */
+    public CuckooIntLongHashMap( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param size the approximate number of entries it will hold.
+     */
+    public CuckooIntLongHashMap( int size )
+    {
+        allocateArrays( (int) Math.min( (long) ( size / MAX_LOAD ) + 1, Integer.MAX_VALUE ) );
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value.
+     * @return true if the key was not present before.
+     */
+    public boolean put( int key, long value )
+    {
+        if( key == EMPTY )
+        {
+            emptyKeyValue = value;
+            if( containsEmptyKey )
+                return false;
+            containsEmptyKey = true;
+            theSize++;
+            return true;
+        }
+
+        int currentPos = findPos( key );
+        if( currentPos != -1 )
+        {
+            vals[ currentPos ] = value;
+            return false;
+        }
+
+        if( occupied >= maxOccupied )
+            rehash( 2 * keys.length );
+
+        int rehashes = 0;
+        while( !place( key, value ) )
+        {
+            if( ++rehashes > ALLOWED_REHASHES )
+            {
+                rehash( 2 * keys.length );   // Make the arrays bigger
+                rehashes = 0;
+            }
+            else
+                rehash( keys.length );
+        }
+
+        occupied++;
+        theSize++;
+        return true;
+    }
+
+    /**
+     * Get the value a key maps to.
+     * @param key the key.
+     * @return the value, or 0 if the key is not present.
+     */
+    public long get( int key )
+    {
+        return getOrDefault( key, 0 );
+    }
+
+    /**
+     * Get the value a key maps to.
+     * @param key the key.
+     * @param defaultValue the value to return if the key is not present.
+     * @return the value, or defaultValue if the key is not present.
+     */
+    public long getOrDefault( int key, long defaultValue )
+    {
+        if( key == EMPTY )
+            return containsEmptyKey ? emptyKeyValue : defaultValue;
+
+        int currentPos = findPos( key );
+        return currentPos != -1 ? vals[ currentPos ] : defaultValue;
+    }
+
+    /**
+     * Remove a key and its value from the hash map.
+     * @param key the key to remove.
+     * @return true if the key was removed.
+     */
+    public boolean remove( int key )
+    {
+        if( key == EMPTY )
+        {
+            if( !containsEmptyKey )
+                return false;
+            containsEmptyKey = false;
+            emptyKeyValue = 0;
+            theSize--;
+            return true;
+        }
+
+        int currentPos = findPos( key );
+        if( currentPos == -1 )
+            return false;
+
+        keys[ currentPos ] = EMPTY;
+        vals[ currentPos ] = 0;
+        occupied--;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Find a key in the hash map.
+     * @param key the key to search for.
+     * @return true if the key is present.
+     */
+    public boolean containsKey( int key )
+    {
+        if( key == EMPTY )
+            return containsEmptyKey;
+
+        return findPos( key ) != -1;
+    }
+
+    /**
+     * Get current size.
+     * @return the number of entries.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return keys.length;
+    }
+
+    /**
+     * Make the hash map logically empty.
+     */
+    public void makeEmpty( )
+    {
+        for( int i = 0; i < keys.length; i++ )
+        {
+            keys[ i ] = EMPTY;
+            vals[ i ] = 0;
+        }
+        containsEmptyKey = false;
+        emptyKeyValue = 0;
+        occupied = 0;
+        theSize = 0;
+    }
+
+    /**
+     * Method that searches both buckets of a key.
+     * @param key the key to search for, never EMPTY.
+     * @return the position of key, or -1 if not found.
+     */
+    private int findPos( int key )
+    {
+        int bucket = myhash( key, 0 );
+        for( int i = bucket; i < bucket + SLOTS; i++ )
+            if( keys[ i ] == key )
+                return i;
+
+        bucket = myhash( key, 1 );
+        for( int i = bucket; i < bucket + SLOTS; i++ )
+            if( keys[ i ] == key )
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Internal method to put a key that is not present into one of
+     * its buckets, moving other keys along the shortest path found by
+     * a breadth-first search. Nothing is moved unless a path is found.
+     * @param key the key, never EMPTY.
+     * @param value its value.
+     * @return true if the key was placed, false if no path was found.
+     */
+    private boolean place( int key, long value )
+    {
+        int first = myhash( key, 0 );
+        int second = myhash( key, 1 );
+        for( int i = first; i < first + SLOTS; i++ )
+            if( keys[ i ] == EMPTY )
+                return write( i, key, value );
+        for( int i = second; i < second + SLOTS; i++ )
+            if( keys[ i ] == EMPTY )
+                return write( i, key, value );
+
+        if( queue == null )
+        {
+            queue = new int[ MAX_SEARCH ];
+            parent = new int[ MAX_SEARCH ];
+        }
+
+        int tail = 0;
+        for( int i = 0; i < SLOTS; i++ )
+        {
+            queue[ tail ] = first + i;
+            parent[ tail++ ] = -1;
+        }
+        if( second != first )
+            for( int i = 0; i < SLOTS; i++ )
+            {
+                queue[ tail ] = second + i;
+                parent[ tail++ ] = -1;
+            }
+
+            // A cell met again further down leads nowhere new, since its
+            // first visit, at a smaller depth, was expanded earlier
+        for( int head = 0; head < tail; head++ )
+        {
+            int pos = queue[ head ];
+            int occupant = keys[ pos ];
+            int here = pos & ~( SLOTS - 1 );
+            int other = myhash( occupant, 0 );
+            if( other == here )
+                other = myhash( occupant, 1 );
+            if( other == here )
+                continue;
+
+            for( int next = other; next < other + SLOTS; next++ )
+            {
+                if( keys[ next ] == EMPTY )
+                {
+                        // Move each key one step, starting from the empty end
+                    int dst = next;
+                    for( int n = head; n != -1; n = parent[ n ] )
+                    {
+                        int src = queue[ n ];
+                        keys[ dst ] = keys[ src ];
+                        vals[ dst ] = vals[ src ];
+                        dst = src;
+                    }
+                    return write( dst, key, value );
+                }
+
+                if( tail < MAX_SEARCH )
+                {
+                    queue[ tail ] = next;
+                    parent[ tail++ ] = head;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean write( int pos, int key, long value )
+    {
+        keys[ pos ] = key;
+        vals[ pos ] = value;
+        return true;
+    }
+
+    /**
+     * Rebuild the hash map with new seeds, doubling the length again
+     * until every entry fits.
+     * @param newLength the minimum length of the new arrays.
+     */
+    private void rehash( int newLength )
+    {
+        int [ ] oldKeys = keys;
+        long [ ] oldVals = vals;
+
+        for( int length = newLength; ; length *= 2 )
+        {
+            allocateArrays( length );
+            boolean placed = true;
+            for( int i = 0; placed && i < oldKeys.length; i++ )
+                if( oldKeys[ i ] != EMPTY )
+                    placed = place( oldKeys[ i ], oldVals[ i ] );
+
+            if( placed )
+                return;
+        }
+    }
+
+    /**
+     * Internal method to find the first cell of a key's bucket.
+     * @param which the hash function, 0 or 1.
+     */
+    private int myhash( int key, int which )
+    {
+        return ( TableSizing.mix( key ^ seeds[ which ] ) & bucketMask ) * SLOTS;
+    }
+
+    private static final int EMPTY = 0;
+    private static final double MAX_LOAD = 0.90;
+    private static final int DEFAULT_TABLE_SIZE = 16;
+    private static final int SLOTS = 4;                // Cells per bucket
+    private static final int MAX_SEARCH = 256;         // Cells examined per path search
+    private static final int ALLOWED_REHASHES = 1;
+
+    private final Random r = new Random( );
+    private final int [ ] seeds = new int[ 2 ];   // One per hash function
+    private int [ ] keys;              // The keys, EMPTY for empty cells
+    private long [ ] vals;             // The values, parallel to keys
+    private int bucketMask;            // keys.length / SLOTS - 1
+    private int maxOccupied;           // Grow before occupied reaches this
+    private int occupied;              // The number of non-empty cells
+    private int theSize;               // Current size, including the zero key
+    private boolean containsEmptyKey;  // True if zero is a key
+    private long emptyKeyValue;        // The value of the zero key
+    private int [ ] queue;             // Cells of the path search, or null
+    private int [ ] parent;            // The queue index each was reached from
+
+    /**
+     * Internal method to allocate arrays and draw new seeds.
+     * @param arraySize the minimum size of the arrays.
+     */
+    private void allocateArrays( int arraySize )
+    {
+        keys = new int[ TableSizing.POWER_OF_TWO.capacity( Math.max( arraySize, SLOTS ) ) ];
+        vals = new long[ keys.length ];
+        bucketMask = keys.length / SLOTS - 1;
+        maxOccupied = (int) ( keys.length * MAX_LOAD );
+        for( int i = 0; i < seeds.length; i++ )
+            seeds[ i ] = r.nextInt( );
+    }
+}
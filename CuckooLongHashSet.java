@@ -0,0 +1,322 @@
+package hashTable;
+
+import java.util.Random;
+
+// CuckooLongHashSet class
+//
+// CONSTRUCTION: an approximate initial size or default of 16
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+
+/**
+ * Cuckoo hash set of long keys, stored unboxed in a primitive array.
+ * A zero cell is empty; the key zero itself is kept in a separate flag,
+ * so every long value can be stored.
+ * <p>
+ * The cells are grouped into buckets of SLOTS adjacent cells, and each
+ * of two seeded hash functions picks a bucket for a key, so a lookup
+ * reads at most two short runs of memory whatever the load. A key
+ * whose buckets are both full makes room by moving other keys to their
+ * other bucket, along the shortest chain of moves that ends in an
+ * empty cell, found by a breadth-first search of at most MAX_SEARCH
+ * cells. If there is none the set draws new seeds, and after
+ * ALLOWED_REHASHES such failures it grows instead.
+ */
+public class CuckooLongHashSet
+{
+    /**
+     * Construct the hash set.
+     */
+    public CuckooLongHashSet( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash set.
+     * @param size the approximate number of items it will hold.
+     */
+    public CuckooLongHashSet( int size )
+    {
+        allocateArray( (int) Math.min( (long) ( size / MAX_LOAD ) + 1, Integer.MAX_VALUE ) );
+    }
+
+    /**
+     * Insert into the hash set. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( long x )
+    {
+        if( x == EMPTY )
+        {
+            if( containsEmptyKey )
+                return false;
+            containsEmptyKey = true;
+            theSize++;
+            return true;
+        }
+
+        if( findPos( x ) != -1 )
+            return false;
+
+        if( occupied >= maxOccupied )
+            rehash( 2 * array.length );
+
+        int rehashes = 0;
+        while( !place( x ) )
+        {
+            if( ++rehashes > ALLOWED_REHASHES )
+            {
+                rehash( 2 * array.length );   // Make the array bigger
+                rehashes = 0;
+            }
+            else
+                rehash( array.length );
+        }
+
+        occupied++;
+        theSize++;
+        return true;
+    }
+
+    /**
+     * Remove from the hash set.
+     * @param x the item to remove.
+     * @return true if item removed.
+     */
+    public boolean remove( long x )
+    {
+        if( x == EMPTY )
+        {
+            if( !containsEmptyKey )
+                return false;
+            containsEmptyKey = false;
+            theSize--;
+            return true;
+        }
+
+        int currentPos = findPos( x );
+        if( currentPos == -1 )
+            return false;
+
+        array[ currentPos ] = EMPTY;
+        occupied--;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Find an item in the hash set.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( long x )
+    {
+        if( x == EMPTY )
+            return containsEmptyKey;
+
+        return findPos( x ) != -1;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return array.length;
+    }
+
+    /**
+     * Make the hash set logically empty.
+     */
+    public void makeEmpty( )
+    {
+        for( int i = 0; i < array.length; i++ )
+            array[ i ] = EMPTY;
+        containsEmptyKey = false;
+        occupied = 0;
+        theSize = 0;
+    }
+
+    /**
+     * Method that searches both buckets of an item.
+     * @param x the item to search for, never EMPTY.
+     * @return the position of x, or -1 if not found.
+     */
+    private int findPos( long x )
+    {
+        int bucket = myhash( x, 0 );
+        for( int i = bucket; i < bucket + SLOTS; i++ )
+            if( array[ i ] == x )
+                return i;
+
+        bucket = myhash( x, 1 );
+        for( int i = bucket; i < bucket + SLOTS; i++ )
+            if( array[ i ] == x )
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Internal method to put an item that is not present into one of
+     * its buckets, moving other items along the shortest path found by
+     * a breadth-first search. Nothing is moved unless a path is found.
+     * @param x the item, never EMPTY.
+     * @return true if x was placed, false if no path was found.
+     */
+    private boolean place( long x )
+    {
+        int first = myhash( x, 0 );
+        int second = myhash( x, 1 );
+        for( int i = first; i < first + SLOTS; i++ )
+            if( array[ i ] == EMPTY )
+                return write( i, x );
+        for( int i = second; i < second + SLOTS; i++ )
+            if( array[ i ] == EMPTY )
+                return write( i, x );
+
+        if( queue == null )
+        {
+            queue = new int[ MAX_SEARCH ];
+            parent = new int[ MAX_SEARCH ];
+        }
+
+        int tail = 0;
+        for( int i = 0; i < SLOTS; i++ )
+        {
+            queue[ tail ] = first + i;
+            parent[ tail++ ] = -1;
+        }
+        if( second != first )
+            for( int i = 0; i < SLOTS; i++ )
+            {
+                queue[ tail ] = second + i;
+                parent[ tail++ ] = -1;
+            }
+
+            // A cell met again further down leads nowhere new, since its
+            // first visit, at a smaller depth, was expanded earlier
+        for( int head = 0; head < tail; head++ )
+        {
+            int pos = queue[ head ];
+            long occupant = array[ pos ];
+            int here = pos & ~( SLOTS - 1 );
+            int other = myhash( occupant, 0 );
+            if( other == here )
+                other = myhash( occupant, 1 );
+            if( other == here )
+                continue;
+
+            for( int next = other; next < other + SLOTS; next++ )
+            {
+                if( array[ next ] == EMPTY )
+                {
+                        // Move each item one step, starting from the empty end
+                    int dst = next;
+                    for( int n = head; n != -1; n = parent[ n ] )
+                    {
+                        int src = queue[ n ];
+                        array[ dst ] = array[ src ];
+                        dst = src;
+                    }
+                    return write( dst, x );
+                }
+
+                if( tail < MAX_SEARCH )
+                {
+                    queue[ tail ] = next;
+                    parent[ tail++ ] = head;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean write( int pos, long x )
+    {
+        array[ pos ] = x;
+        return true;
+    }
+
+    /**
+     * Rebuild the hash set with new seeds, doubling the length again
+     * until every item fits.
+     * @param newLength the minimum length of the new array.
+     */
+    private void rehash( int newLength )
+    {
+        long [ ] oldArray = array;
+
+        for( int length = newLength; ; length *= 2 )
+        {
+            allocateArray( length );
+            boolean placed = true;
+            for( int i = 0; placed && i < oldArray.length; i++ )
+                if( oldArray[ i ] != EMPTY )
+                    placed = place( oldArray[ i ] );
+
+            if( placed )
+                return;
+        }
+    }
+
+    /**
+     * Internal method to find the first cell of an item's bucket.
+     * @param which the hash function, 0 or 1.
+     */
+    private int myhash( long x, int which )
+    {
+        return ( (int) TableSizing.mix( x ^ seeds[ which ] ) & bucketMask ) * SLOTS;
+    }
+
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.90;
+    private static final int DEFAULT_TABLE_SIZE = 16;
+    private static final int SLOTS = 4;                // Cells per bucket
+    private static final int MAX_SEARCH = 256;         // Cells examined per path search
+    private static final int ALLOWED_REHASHES = 1;
+
+    private final Random r = new Random( );
+    private final long [ ] seeds = new long[ 2 ];   // One per hash function
+    private long [ ] array;            // The items, EMPTY for empty cells
+    private int bucketMask;            // array.length / SLOTS - 1
+    private int maxOccupied;           // Grow before occupied reaches this
+    private int occupied;              // The number of non-empty cells
+    private int theSize;               // Current size, including zero
+    private boolean containsEmptyKey;  // True if zero is in the set
+    private int [ ] queue;             // Cells of the path search, or null
+    private int [ ] parent;            // The queue index each was reached from
+
+    /**
+     * Internal method to allocate array and draw new seeds.
+     * @param arraySize the minimum size of the array.
+     */
+    private void allocateArray( int arraySize )
+    {
+        array = new long[ TableSizing.POWER_OF_TWO.capacity( Math.max( arraySize, SLOTS ) ) ];
+        bucketMask = array.length / SLOTS - 1;
+        maxOccupied = (int) ( array.length * MAX_LOAD );
+        for( int i = 0; i < seeds.length; i++ )
+            seeds[ i ] = r.nextLong( );
+    }
+}
@@ -0,0 +1,312 @@
+package hashTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// CuckooSnapshot class
+//
+// CONSTRUCTION: with open( file ), of a file saved with write
+//
+// ******************PUBLIC OPERATIONS*********************
+// void write( t, file )  --> Save cuckoo table of strings t to file
+// CuckooSnapshot open( file ) --> Map a saved table for lookups
+// bool contains( x )     --> Return true if x is present
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return number of cells
+// CuckooHashTable<String> toTable( ) --> Return an updatable copy
+
+/**
+ * A cuckoo table of strings saved to a file, and read back by mapping
+ * the file into memory.
+ * <p>
+ * The file holds the layout of the table (sizing, slots per bucket,
+ * number of buckets) and the multipliers of its StringHashFamily,
+ * then one cell per cell of the table giving the file offset of its
+ * key, then the keys as a length and UTF-16 chars. Opening a snapshot
+ * only maps the file: a lookup hashes the string with the saved
+ * multipliers and compares it with the keys in its buckets, exactly
+ * as the table did, so nothing is rehashed or even read until it is
+ * looked up, and the operating system pages the file in on demand.
+ * <p>
+ * A snapshot is read-only and safe for concurrent lookups. toTable
+ * copies it into a new CuckooHashTable with the same length and hash
+ * functions, putting every key back in its own cell. Values of a
+ * CuckooHashMap are not saved.
+ */
+public final class CuckooSnapshot
+{
+    /**
+     * Save a table to a file, replacing the file if it exists.
+     * A resize in progress is finished first.
+     * @param t the table, which must use a StringHashFamily.
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write( CuckooHashTable<String> t, Path file ) throws IOException
+    {
+        if( !( t.getHashFamily( ) instanceof StringHashFamily ) )
+            throw new IllegalArgumentException( "Only tables hashed by StringHashFamily can be saved" );
+
+        Object [ ] cells = t.cells( );
+        int [ ] multipliers = ( (StringHashFamily) t.getHashFamily( ) ).getMultipliers( );
+        int slotsPerBucket = t.getSlotsPerBucket( );
+        long cellsStart = cellsStart( multipliers.length );
+
+        try( FileChannel out = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                 StandardOpenOption.TRUNCATE_EXISTING ) )
+        {
+            ByteBuffer buf = ByteBuffer.allocate( WRITE_BUFFER_SIZE );
+            buf.putLong( MAGIC );
+            buf.putInt( t.getSizing( ).ordinal( ) );
+            buf.putInt( slotsPerBucket );
+            buf.putInt( cells.length / slotsPerBucket );
+            buf.putInt( t.size( ) );
+            buf.putInt( multipliers.length );
+            for( int m : multipliers )
+                buf = reserve( out, buf, 4 ).putInt( m );
+            for( long pos = HEADER_SIZE + 4L * multipliers.length; pos < cellsStart; pos++ )
+                buf = reserve( out, buf, 1 ).put( (byte) 0 );
+
+                // The offsets of the keys, laid out after the cells
+            long offset = cellsStart + 8L * cells.length;
+            for( Object x : cells )
+                if( x == null )
+                    buf = reserve( out, buf, 8 ).putLong( 0 );
+                else
+                {
+                    offset = keyStart( offset, ( (String) x ).length( ) );
+                    buf = reserve( out, buf, 8 ).putLong( offset );
+                    offset += keySize( ( (String) x ).length( ) );
+                }
+
+                // The keys, padded where one would cross a region
+            offset = cellsStart + 8L * cells.length;
+            for( Object cell : cells )
+                if( cell != null )
+                {
+                    String x = (String) cell;
+                    for( long start = keyStart( offset, x.length( ) ); offset < start; offset++ )
+                        buf = reserve( out, buf, 1 ).put( (byte) 0 );
+                    buf = reserve( out, buf, 4 ).putInt( x.length( ) );
+                    for( int i = 0; i < x.length( ); i++ )
+                        buf = reserve( out, buf, 2 ).putChar( x.charAt( i ) );
+                    offset += keySize( x.length( ) );
+                }
+
+            reserve( out, buf, WRITE_BUFFER_SIZE );
+        }
+    }
+
+    /**
+     * Internal method to make room for n more bytes in the write
+     * buffer, writing out its contents if needed.
+     * @return the buffer.
+     */
+    private static ByteBuffer reserve( FileChannel out, ByteBuffer buf, int n ) throws IOException
+    {
+        if( buf.remaining( ) < n )
+        {
+            buf.flip( );
+            while( buf.hasRemaining( ) )
+                out.write( buf );
+            buf.clear( );
+        }
+        return buf;
+    }
+
+    /**
+     * Map a saved table into memory.
+     * @param file a file written by write.
+     * @return the snapshot, ready for lookups.
+     * @throws IOException if the file cannot be read or is not a snapshot.
+     */
+    public static CuckooSnapshot open( Path file ) throws IOException
+    {
+        try( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+        {
+            long length = channel.size( );
+            ByteBuffer [ ] regions = new ByteBuffer[ (int) ( ( length + REGION_SIZE - 1 ) >>> REGION_SHIFT ) ];
+            for( int i = 0; i < regions.length; i++ )
+            {
+                long start = (long) i << REGION_SHIFT;
+                regions[ i ] = channel.map( FileChannel.MapMode.READ_ONLY, start,
+                                            Math.min( REGION_SIZE, length - start ) );
+            }
+
+            if( length < HEADER_SIZE || regions[ 0 ].getLong( 0 ) != MAGIC )
+                throw new IOException( "Not a cuckoo table snapshot: " + file );
+
+            return new CuckooSnapshot( regions );
+        }
+    }
+
+    /**
+     * Internal constructor to read the header of a mapped file.
+     */
+    private CuckooSnapshot( ByteBuffer [ ] regions )
+    {
+        this.regions = regions;
+        ByteBuffer header = regions[ 0 ];
+        sizing = TableSizing.values( )[ header.getInt( 8 ) ];
+        slotsPerBucket = header.getInt( 12 );
+        numBuckets = header.getInt( 16 );
+        theSize = header.getInt( 20 );
+
+        int [ ] multipliers = new int[ header.getInt( 24 ) ];
+        for( int i = 0; i < multipliers.length; i++ )
+            multipliers[ i ] = header.getInt( HEADER_SIZE + 4 * i );
+        hashFunctions = new StringHashFamily( multipliers );
+        cellsStart = cellsStart( multipliers.length );
+    }
+
+    /**
+     * Find an item in the snapshot.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( String x )
+    {
+        for( int i = 0; i < hashFunctions.getNumberOfFunctions( ); i++ )
+        {
+            int start = sizing.index( hashFunctions.hash( x, i ), numBuckets ) * slotsPerBucket;
+            for( int pos = start; pos < start + slotsPerBucket; pos++ )
+            {
+                long offset = cellAt( pos );
+                if( offset != 0 && keyEquals( offset, x ) )
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the size of the saved table.
+     * @return number of items.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Gets the length of the saved table.
+     * @return the number of cells.
+     */
+    public int capacity( )
+    {
+        return numBuckets * slotsPerBucket;
+    }
+
+    /**
+     * Copy the snapshot into a new table that can be updated.
+     * Every key goes back into the cell it was saved from, so
+     * nothing is hashed.
+     * @return the table, with a StringHashFamily of the saved multipliers.
+     */
+    public CuckooHashTable<String> toTable( )
+    {
+        CuckooHashTable<String> t = new CuckooHashTable<>(
+                new StringHashFamily( hashFunctions.getMultipliers( ) ), capacity( ), sizing, slotsPerBucket );
+
+        for( int pos = 0; pos < capacity( ); pos++ )
+        {
+            long offset = cellAt( pos );
+            if( offset != 0 )
+                t.putAt( pos, keyAt( offset ) );
+        }
+
+        return t;
+    }
+
+    /**
+     * Internal method to compare the key at a file offset with x.
+     */
+    private boolean keyEquals( long offset, String x )
+    {
+        ByteBuffer region = regions[ (int) ( offset >>> REGION_SHIFT ) ];
+        int pos = (int) ( offset & REGION_MASK );
+
+        int len = region.getInt( pos );
+        if( len != x.length( ) )
+            return false;
+
+        for( int i = 0; i < len; i++ )
+            if( region.getChar( pos + 4 + 2 * i ) != x.charAt( i ) )
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Internal method to read the key at a file offset.
+     */
+    private String keyAt( long offset )
+    {
+        ByteBuffer region = regions[ (int) ( offset >>> REGION_SHIFT ) ];
+        int pos = (int) ( offset & REGION_MASK );
+
+        char [ ] chars = new char[ region.getInt( pos ) ];
+        for( int i = 0; i < chars.length; i++ )
+            chars[ i ] = region.getChar( pos + 4 + 2 * i );
+        return new String( chars );
+    }
+
+    /**
+     * Internal method to read the file offset of the key in a cell.
+     * @return the offset, or 0 for an empty cell.
+     */
+    private long cellAt( int pos )
+    {
+        long offset = cellsStart + 8L * pos;
+        return regions[ (int) ( offset >>> REGION_SHIFT ) ].getLong( (int) ( offset & REGION_MASK ) );
+    }
+
+    /**
+     * The offset of the first cell: after the header and the
+     * multipliers, rounded up to 8 so that no cell crosses a region.
+     */
+    private static long cellsStart( int numFunctions )
+    {
+        return ( HEADER_SIZE + 4L * numFunctions + 7 ) & ~7L;
+    }
+
+    /**
+     * The offset at which a key of len chars is written when the
+     * previous one ended at offset: the next region if it would
+     * cross into it.
+     */
+    private static long keyStart( long offset, int len )
+    {
+        if( keySize( len ) > REGION_SIZE )
+            throw new IllegalArgumentException( "Key too long: " + len + " chars" );
+
+        if( ( offset & REGION_MASK ) + keySize( len ) > REGION_SIZE )
+            return ( offset | REGION_MASK ) + 1;
+        return offset;
+    }
+
+    private static long keySize( int len )
+    {
+        return 4 + 2L * len;
+    }
+
+    private static final long MAGIC = 0x43554b4f4f533031L;   // "CUKOOS01"
+    private static final int HEADER_SIZE = 28;                // Magic and five ints
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private static final int REGION_SHIFT = 30;               // The file is mapped 1GB at a time
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+    private static final long REGION_MASK = REGION_SIZE - 1;
+
+    private final ByteBuffer [ ] regions;   // Region i maps the file from i * REGION_SIZE
+    private final TableSizing sizing;
+    private final int slotsPerBucket;
+    private final int numBuckets;
+    private final int theSize;
+    private final StringHashFamily hashFunctions;
+    private final long cellsStart;          // File offset of the first cell
+}
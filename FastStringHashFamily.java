@@ -0,0 +1,110 @@
+package hashTable;
+
+import java.util.Random;
+
+/**
+ * A family of string hash functions that scans each string once.
+ * One seeded 64-bit hash, in the style of wyhash, is computed per
+ * string by hash64, and function i is derived from its halves as
+ * h1 + i * h2 by hash( x, h, i ), so a cuckoo table that hashes a
+ * string once per operation reads its characters only once.
+ * <p>
+ * The loop reads four chars into each 64-bit word and mixes two words
+ * per step with a 64x64-bit multiply folded to 64 bits. Hashing keeps
+ * no state, so lookups may share the family between threads.
+ */
+public class FastStringHashFamily implements HashFamily<String>
+{
+    private static final long P0 = 0xa0761d6478bd642fL;
+    private static final long P1 = 0xe7037ed1a0b428dbL;
+    private static final long P2 = 0x8ebc6af09c88c6e3L;
+
+    private final int numFunctions;
+    private final Random r = new Random( );
+    private long seed;
+
+    public FastStringHashFamily( int d )
+    {
+        numFunctions = d;
+        generateNewFunctions( );
+    }
+
+    public int getNumberOfFunctions( )
+    {
+        return numFunctions;
+    }
+
+    public void generateNewFunctions( )
+    {
+        long s = r.nextLong( );
+        seed = s ^ mum( s ^ P0, P1 );
+    }
+
+    public int hash( String x, int which )
+    {
+        return hash( x, hash64( x ), which );
+    }
+
+    public long hash64( String x )
+    {
+        return hash64( x, seed );
+    }
+
+    public int hash( String x, long h, int which )
+    {
+        int h1 = (int) h;
+        int h2 = (int) ( h >>> 32 ) | 1;   // Odd, so the functions differ
+        return h1 + which * h2;
+    }
+
+    /**
+     * The 64-bit seeded hash of a string.
+     * @param x the string.
+     * @param seed the seed, which should already be well mixed.
+     * @return the hash value.
+     */
+    public static long hash64( String x, long seed )
+    {
+        int len = x.length( );
+        long h = seed ^ len;
+        int i = 0;
+
+        for( ; i + 8 <= len; i += 8 )
+            h = mum( word( x, i ) ^ P1, word( x, i + 4 ) ^ h );
+
+            // The last 0 to 7 chars, zero-padded; the length tells
+            // apart tails that pad to the same words
+        long a = 0;
+        long b = 0;
+        if( len - i >= 4 )
+        {
+            a = word( x, i );
+            i += 4;
+        }
+        for( int shift = 0; i < len; i++, shift += 16 )
+            b |= (long) x.charAt( i ) << shift;
+
+        h = mum( a ^ P1, b ^ h );
+        return mum( h ^ P2, len ^ P0 );
+    }
+
+    /**
+     * Internal method to read four chars as one little-endian word.
+     */
+    private static long word( String x, int i )
+    {
+        return x.charAt( i )
+             | (long) x.charAt( i + 1 ) << 16
+             | (long) x.charAt( i + 2 ) << 32
+             | (long) x.charAt( i + 3 ) << 48;
+    }
+
+    /**
+     * Internal method to multiply two words and fold the
+     * 128-bit product to 64 bits.
+     */
+    private static long mum( long a, long b )
+    {
+        return a * b ^ Math.multiplyHigh( a, b );
+    }
+}
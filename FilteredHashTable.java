@@ -0,0 +1,152 @@
+package hashTable;
+
+import java.util.Spliterator;
+
+// FilteredHashTable class
+//
+// CONSTRUCTION: a HashTable to wrap and a hashing function family
+//               for its filter
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// Stream stream( )       --> Return a stream of the items; also iterator( ),
+//                            spliterator( ) and parallelStream( )
+// CuckooFilter getFilter( ) --> Return the filter in front of the table
+
+/**
+ * A hash table with a CuckooFilter in front of it. contains and
+ * remove ask the filter first, and only go to the table if it says
+ * the item might be there, so a miss usually costs two reads of the
+ * filter's small array instead of a search of every bucket or a walk
+ * along a chain. Hits cost the filter lookup on top of the table's.
+ * <p>
+ * The filter holds a fingerprint of every item of the table. It is
+ * built from the items already there, and when it fills up it is
+ * built again, twice as large, from the table. The wrapped table must
+ * not be modified except through this one, and the family must not
+ * be shared with the table, which may draw new functions.
+ */
+public class FilteredHashTable<AnyType> implements HashTable<AnyType>
+{
+    /**
+     * Construct the filtered table.
+     * @param table the table to wrap, which may already hold items.
+     * @param hf the hash family for the filter.
+     */
+    public FilteredHashTable( HashTable<AnyType> table, HashFamily<? super AnyType> hf )
+    {
+        this.table = table;
+        hashFunctions = hf;
+        rebuildFilter( Math.max( table.size( ), MIN_FILTER_SIZE ) );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        if( !table.insert( x ) )
+            return false;
+
+        if( !filter.add( x ) )
+            rebuildFilter( 2 * filter.size( ) );
+        return true;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if the item was removed.
+     */
+    public boolean remove( AnyType x )
+    {
+        if( !filter.mightContain( x ) || !table.remove( x ) )
+            return false;
+
+        filter.remove( x );
+        return true;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        return filter.mightContain( x ) && table.contains( x );
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        table.makeEmpty( );
+        filter.makeEmpty( );
+    }
+
+    /**
+     * Get current size.
+     * @return the number of items in the table.
+     */
+    public int size( )
+    {
+        return table.size( );
+    }
+
+    /**
+     * Make a spliterator over the items of the table.
+     * @return the spliterator.
+     */
+    public Spliterator<AnyType> spliterator( )
+    {
+        return table.spliterator( );
+    }
+
+    /**
+     * Get the filter in front of the table.
+     * @return the filter, which is replaced whenever it fills up.
+     */
+    public CuckooFilter<AnyType> getFilter( )
+    {
+        return filter;
+    }
+
+    /**
+     * Internal method to build a new filter of every item of the
+     * table, doubling its size until they all fit.
+     * @param expectedSize the number of items to size it for.
+     */
+    private void rebuildFilter( int expectedSize )
+    {
+        for( ; ; expectedSize *= 2 )
+        {
+            filter = new CuckooFilter<>( hashFunctions, expectedSize );
+
+            boolean full = false;
+            for( AnyType x : table )
+                if( !filter.add( x ) )
+                {
+                    full = true;
+                    break;
+                }
+
+            if( !full )
+                return;
+        }
+    }
+
+    private static final int MIN_FILTER_SIZE = 1 << 10;
+
+    private final HashTable<AnyType> table;
+    private final HashFamily<? super AnyType> hashFunctions;
+    private CuckooFilter<AnyType> filter;
+}
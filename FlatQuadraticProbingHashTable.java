@@ -0,0 +1,228 @@
+package hashTable;
+
+// FlatQuadraticProbing Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               and optionally a TableSizing scheme (default PRIME)
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+
+/**
+ * Probing table implementation of hash tables that stores the items
+ * directly in a flat array instead of wrapping each one in a HashEntry.
+ * Deleted cells hold a shared sentinel object, so inserts allocate
+ * nothing and every probe inspects a single array.
+ * Note that all "matching" is based on the equals method.
+ */
+public class FlatQuadraticProbingHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     */
+    public FlatQuadraticProbingHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate initial size.
+     */
+    public FlatQuadraticProbingHashTable( int size )
+    {
+        this( size, TableSizing.PRIME );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate initial size.
+     * @param sizing how the array is sized and indexed.
+     */
+    public FlatQuadraticProbingHashTable( int size, TableSizing sizing )
+    {
+        this.sizing = sizing;
+        probeStep = sizing.probeStep( );
+        allocateArray( size );
+        doClear( );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int offset = 1;
+        int currentPos = myhash( x );
+        int deletedPos = -1;
+
+            // Look for x, remembering the first deleted cell on the way
+        while( array[ currentPos ] != null )
+        {
+            if( array[ currentPos ] == DELETED )
+            {
+                if( deletedPos == -1 )
+                    deletedPos = currentPos;
+            }
+            else if( array[ currentPos ].equals( x ) )
+                return false;
+
+            currentPos += offset;  // Compute ith probe
+            offset += probeStep;
+            if( currentPos >= array.length )
+                currentPos -= array.length;
+        }
+
+        theSize++;
+        if( deletedPos != -1 )
+        {
+            array[ deletedPos ] = x;  // Reuse the deleted cell
+            return true;
+        }
+
+        array[ currentPos ] = x;
+
+            // Rehash; see Section 5.5
+        if( ++occupied > array.length / 2 )
+            rehash( );
+
+        return true;
+    }
+
+    /**
+     * Expand the hash table.
+     */
+    private void rehash( )
+    {
+        Object [ ] oldArray = array;
+
+            // Create a new double-sized, empty table
+        allocateArray( 2 * oldArray.length );
+        occupied = 0;
+        theSize = 0;
+
+            // Copy table over; the new table holds no deleted cells
+        for( Object item : oldArray )
+            if( item != null && item != DELETED )
+            {
+                array[ findPos( item ) ] = item;
+                occupied++;
+                theSize++;
+            }
+    }
+
+    /**
+     * Method that performs quadratic probing resolution.
+     * Deleted cells are probed past, never returned.
+     * @param x the item to search for.
+     * @return the position of x, or of the empty cell ending the search.
+     */
+    private int findPos( Object x )
+    {
+        int offset = 1;
+        int currentPos = myhash( x );
+
+        while( array[ currentPos ] != null &&
+                ( array[ currentPos ] == DELETED || !array[ currentPos ].equals( x ) ) )
+        {
+            currentPos += offset;  // Compute ith probe
+            offset += probeStep;
+            if( currentPos >= array.length )
+                currentPos -= array.length;
+        }
+
+        return currentPos;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if item removed
+     */
+    public boolean remove( AnyType x )
+    {
+        int currentPos = findPos( x );
+        if( array[ currentPos ] == null )
+            return false;
+
+        array[ currentPos ] = DELETED;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return array.length;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        return array[ findPos( x ) ] != null;
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        doClear( );
+    }
+
+    private void doClear( )
+    {
+        occupied = 0;
+        theSize = 0;
+        for( int i = 0; i < array.length; i++ )
+            array[ i ] = null;
+    }
+
+    private int myhash( Object x )
+    {
+        return sizing.index( x.hashCode( ), array.length );
+    }
+
+        /** Marker stored in cells whose item has been removed. */
+    private static final Object DELETED = new Object( );
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+
+    private final TableSizing sizing;  // How the array is sized and indexed
+    private final int probeStep;       // Growth of the probe offset
+    private Object [ ] array;          // The items, null for empty, DELETED for removed
+    private int occupied;              // The number of non-null cells
+    private int theSize;               // Current size
+
+    /**
+     * Internal method to allocate array.
+     * @param arraySize the size of the array.
+     */
+    private void allocateArray( int arraySize )
+    {
+        array = new Object[ sizing.capacity( arraySize ) ];
+    }
+}
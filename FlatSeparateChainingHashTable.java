@@ -0,0 +1,241 @@
+package hashTable;
+
+import java.util.Arrays;
+
+// FlatSeparateChaining Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               and optionally a TableSizing scheme (default PRIME)
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return number of chains
+
+/**
+ * Separate chaining table implementation of hash tables that keeps
+ * its chains in flat arrays instead of a LinkedList per bucket.
+ * Each entry is an index into parallel arrays of items, hash codes and
+ * next indexes, and each chain is an int in the array of heads, so an
+ * empty chain costs four bytes and allocates nothing; the entry arrays
+ * start small and double as they fill. A search compares the saved
+ * hash codes first and calls equals only when they match, and a resize
+ * relinks the entries from their saved hash codes without moving them
+ * or calling hashCode. Removed entries are kept on a free list and
+ * reused by later inserts.
+ * Note that all "matching" is based on the equals method.
+ */
+public class FlatSeparateChainingHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     */
+    public FlatSeparateChainingHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     */
+    public FlatSeparateChainingHashTable( int size )
+    {
+        this( size, TableSizing.PRIME );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     * @param sizing how the array of chains is sized and indexed.
+     */
+    public FlatSeparateChainingHashTable( int size, TableSizing sizing )
+    {
+        this.sizing = sizing;
+        allocateHeads( size );
+        items = new Object[ MIN_ENTRIES ];
+        hashes = new int[ MIN_ENTRIES ];
+        next = new int[ MIN_ENTRIES ];
+        free = NONE;
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, then do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int hashVal = x.hashCode( );
+        int chain = sizing.index( hashVal, heads.length );
+        if( findEntry( chain, hashVal, x ) != NONE )
+            return false;
+
+        int entry = newEntry( );
+        items[ entry ] = x;
+        hashes[ entry ] = hashVal;
+        next[ entry ] = heads[ chain ];
+        heads[ chain ] = entry;
+
+            // Rehash; see Section 5.5
+        if( ++currentSize > heads.length )
+            rehash( );
+
+        return true;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if the item was removed.
+     */
+    public boolean remove( AnyType x )
+    {
+        int hashVal = x.hashCode( );
+        int chain = sizing.index( hashVal, heads.length );
+
+        int prev = NONE;
+        for( int entry = heads[ chain ]; entry != NONE; prev = entry, entry = next[ entry ] )
+            if( hashes[ entry ] == hashVal && items[ entry ].equals( x ) )
+            {
+                if( prev == NONE )
+                    heads[ chain ] = next[ entry ];
+                else
+                    next[ prev ] = next[ entry ];
+
+                items[ entry ] = null;
+                next[ entry ] = free;
+                free = entry;
+                currentSize--;
+                return true;
+            }
+
+        return false;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        int hashVal = x.hashCode( );
+        return findEntry( sizing.index( hashVal, heads.length ), hashVal, x ) != NONE;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize;
+    }
+
+    /**
+     * Get the number of chains.
+     * @return the length of the array of heads.
+     */
+    public int capacity( )
+    {
+        return heads.length;
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        Arrays.fill( heads, NONE );
+        Arrays.fill( items, 0, end, null );
+        end = 0;
+        free = NONE;
+        currentSize = 0;
+    }
+
+    /**
+     * Internal method to search a chain.
+     * @param chain the chain x hashes to.
+     * @param hashVal the hash code of x.
+     * @param x the item to search for.
+     * @return the entry holding x, or NONE.
+     */
+    private int findEntry( int chain, int hashVal, Object x )
+    {
+        for( int entry = heads[ chain ]; entry != NONE; entry = next[ entry ] )
+            if( hashes[ entry ] == hashVal && items[ entry ].equals( x ) )
+                return entry;
+
+        return NONE;
+    }
+
+    /**
+     * Internal method to get an unused entry: the last one removed,
+     * or else the next one never used, growing the entry arrays if
+     * they are full.
+     * @return the index of the entry.
+     */
+    private int newEntry( )
+    {
+        if( free != NONE )
+        {
+            int entry = free;
+            free = next[ entry ];
+            return entry;
+        }
+
+        if( end == items.length )
+        {
+            int newLength = 2 * items.length;
+            items = Arrays.copyOf( items, newLength );
+            hashes = Arrays.copyOf( hashes, newLength );
+            next = Arrays.copyOf( next, newLength );
+        }
+        return end++;
+    }
+
+    /**
+     * Expand the hash table. Only the heads are reallocated: every
+     * entry stays where it is and is linked into its new chain.
+     */
+    private void rehash( )
+    {
+        allocateHeads( 2 * heads.length );
+
+        for( int entry = 0; entry < end; entry++ )
+            if( items[ entry ] != null )
+            {
+                int chain = sizing.index( hashes[ entry ], heads.length );
+                next[ entry ] = heads[ chain ];
+                heads[ chain ] = entry;
+            }
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final int MIN_ENTRIES = 16;
+    private static final int NONE = -1;   // The end of a chain or of the free list
+
+    private final TableSizing sizing;  // How the heads are sized and indexed
+    private int [ ] heads;             // The first entry of each chain, or NONE
+    private Object [ ] items;          // The item of each entry, null if unused
+    private int [ ] hashes;            // The hash code of each item
+    private int [ ] next;              // The next entry of its chain or of the free list
+    private int end;                   // Entries from here on have never been used
+    private int free;                  // The first entry of the free list, or NONE
+    private int currentSize;
+
+    /**
+     * Internal method to allocate the array of heads, all empty.
+     * @param arraySize the approximate number of chains.
+     */
+    private void allocateHeads( int arraySize )
+    {
+        heads = new int[ sizing.capacity( arraySize ) ];
+        Arrays.fill( heads, NONE );
+    }
+}
@@ -4,8 +4,15 @@ import java.util.Random;
 
 public class GenerateRandomString {
     public static String genRandStr() {
+        return genRandStr(new Random());
+    }
+
+    /**
+     * Generate a random string from the given generator, so that callers
+     * can reproduce the same sequence of strings from a fixed seed.
+     */
+    public static String genRandStr(Random rand) {
         String preset = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz1234567890";
-        Random rand=new Random();
         StringBuilder strBld=new StringBuilder();
         for (int i = 0; i < 10; i++) {
             int index=rand.nextInt(preset.length());
@@ -6,4 +6,31 @@ public interface HashFamily<AnyType>
     int hash( AnyType x, int which );
     int getNumberOfFunctions( );
     void generateNewFunctions( );
+
+    /**
+     * Hash an item once for all the functions of the family. A family
+     * that derives every function from one hash returns it here, and
+     * a caller needing several functions of one item passes it to
+     * hash( x, h, which ) instead of scanning the item for each.
+     * The hash methods may be called from several threads at once, so
+     * they must not keep anything of the items they hash.
+     * @param x the item.
+     * @return the hash, or 0 if the functions hash x on their own.
+     */
+    default long hash64( AnyType x )
+    {
+        return 0;
+    }
+
+    /**
+     * Function which of an item, given its hash64.
+     * @param x the item.
+     * @param h hash64( x ).
+     * @param which the function.
+     * @return the hash value.
+     */
+    default int hash( AnyType x, long h, int which )
+    {
+        return hash( x, which );
+    }
 }
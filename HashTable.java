@@ -0,0 +1,90 @@
+package hashTable;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The operations shared by CuckooHashTable, QuadraticProbingHashTable
+ * and SeparateChainingHashTable.
+ * <p>
+ * A table can be scanned with an iterator, a spliterator or a stream.
+ * The spliterator walks the backing array directly and splits it into
+ * ranges of cells, so a parallel stream scans a large table on every
+ * core of the common fork-join pool. A resize in progress is finished
+ * before a scan starts. The table must not be modified during a scan;
+ * a scan of a table that was modified may miss items or see them twice.
+ * Neither the iterator nor the spliterator allocate per item.
+ */
+public interface HashTable<AnyType> extends Iterable<AnyType>
+{
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    boolean insert( AnyType x );
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if the item was removed.
+     */
+    boolean remove( AnyType x );
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    boolean contains( AnyType x );
+
+    /**
+     * Make the hash table logically empty.
+     */
+    void makeEmpty( );
+
+    /**
+     * Get current size.
+     * @return the number of items in the table.
+     */
+    int size( );
+
+    /**
+     * Make a spliterator over the items, split by ranges of cells.
+     * @return the spliterator.
+     */
+    @Override
+    Spliterator<AnyType> spliterator( );
+
+    /**
+     * Make an iterator over the items. It does not support remove.
+     * @return the iterator.
+     */
+    @Override
+    default Iterator<AnyType> iterator( )
+    {
+        return Spliterators.iterator( spliterator( ) );
+    }
+
+    /**
+     * Make a sequential stream of the items.
+     * @return the stream.
+     */
+    default Stream<AnyType> stream( )
+    {
+        return StreamSupport.stream( spliterator( ), false );
+    }
+
+    /**
+     * Make a parallel stream of the items.
+     * @return the stream.
+     */
+    default Stream<AnyType> parallelStream( )
+    {
+        return StreamSupport.stream( spliterator( ), true );
+    }
+}
@@ -0,0 +1,828 @@
+package hashTable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static hashTable.GenerateRandomString.genRandStr;
+
+// HashTableBenchmark class
+//
+// USAGE: java hashTable.HashTableBenchmark [ options ]
+//
+// ******************OPTIONS*******************************
+// -table name        --> cuckoo, fastCuckoo, bucketCuckoo, incrementalCuckoo,
+//                        quadratic, incrementalQuadratic, flat, robinHood,
+//                        swiss, offHeap, chaining, incrementalChaining,
+//                        flatChaining, filteredCuckoo, filteredChaining,
+//                        shardedQuadratic, concurrentChaining,
+//                        concurrentCuckoo or all (default all)
+// -workload name     --> insert, containsHit, containsMiss, remove,
+//                        mixed or all (default all)
+// -sizing name       --> prime, powerOfTwo or all (default all)
+// -threads n         --> threads sharing each table; more than one
+//                        runs only the thread-safe tables (default 1)
+// -minExp n          --> smallest table size is 2^n (default 4)
+// -maxExp n          --> largest table size is 2^n (default 20)
+// -expStep n         --> step between the exponents of the sizes (default 4)
+// -warmup n          --> warmup iterations per trial (default 3)
+// -iterations n      --> measured iterations per trial (default 5)
+// -iterationMillis n --> minimum timed work per iteration (default 100)
+// -latencyOps n      --> minimum operations timed one by one per trial,
+//                        0 for none (default 1000000)
+// -forks n           --> fresh JVMs per trial, 0 runs in this JVM (default 1)
+// -seed n            --> seed for the pre-generated keys (default 42)
+//
+// The defaults take a few seconds per table, sizing, workload and
+// size; "-minExp 1 -maxExp 24 -expStep 1 -forks 2" runs every size.
+
+/**
+ * Throughput benchmark for the hash table implementations.
+ * Follows the usual JMH methodology: keys are generated up front from
+ * a fixed seed, table construction and pre-filling are never timed,
+ * each trial runs warmup iterations before the measured ones, and
+ * each trial is repeated in fresh JVMs so that JIT decisions made
+ * for one table do not leak into the numbers of another.
+ * Small tables are measured in batches so that every timed region
+ * covers enough operations to be far above the timer resolution.
+ * With several threads, each one works on its own interleaved share
+ * of the keys against the same tables.
+ * <p>
+ * After the measured iterations each trial times operations one by
+ * one, in the same passes over fresh tables, until it has at least
+ * latencyOps of them, and counts them in a histogram whose buckets
+ * are at most about 3% wide. The summary shows percentiles of the
+ * histograms of all forks together, and the slowest operation, which
+ * for inserts is usually a resize. Each sample includes one read of
+ * the clock, some tens of nanoseconds, so the low percentiles of the
+ * fastest operations say more about the clock than the table.
+ * For the tables that report their size and capacity, the summary
+ * also shows the load (items per cell) left by the timed pass; the
+ * memory their arrays take per item is proportional to 1 / load.
+ */
+public class HashTableBenchmark
+{
+    /**
+     * The operations every benchmarked table must support.
+     */
+    private interface Subject
+    {
+        boolean insert( String x );
+        boolean contains( String x );
+        boolean remove( String x );
+        double load( );   // NaN if the table does not report it
+    }
+
+    private enum Workload
+    {
+        INSERT( "insert", true, false ),
+        CONTAINS_HIT( "containsHit", false, true ),
+        CONTAINS_MISS( "containsMiss", false, true ),
+        REMOVE( "remove", true, true ),
+        MIXED( "mixed", true, true );
+
+        final String name;
+        final boolean mutates;   // the timed pass changes the table
+        final boolean prefill;   // the table holds the present keys before timing
+
+        Workload( String name, boolean mutates, boolean prefill )
+        {
+            this.name = name;
+            this.mutates = mutates;
+            this.prefill = prefill;
+        }
+
+        static Workload byName( String name )
+        {
+            for( Workload w : values( ) )
+                if( w.name.equals( name ) )
+                    return w;
+            throw new IllegalArgumentException( "Unknown workload: " + name );
+        }
+    }
+
+    private static final int INITIAL_SIZE = 101;
+    private static final int SHARDS = 16;
+
+        // Factories return null for a sizing the table does not support
+    private static final Map<String, Function<TableSizing, Subject>> TABLES = new LinkedHashMap<>( );
+
+        // The tables that are safe to share between threads
+    private static final Set<String> CONCURRENT = new HashSet<>( );
+
+    static
+    {
+        TABLES.put( "cuckoo", sizing -> {
+            CuckooHashTable<String> t = new CuckooHashTable<>( new StringHashFamily( 3 ), INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "fastCuckoo", sizing -> {
+            CuckooHashTable<String> t = new CuckooHashTable<>( new FastStringHashFamily( 3 ), INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "bucketCuckoo", sizing -> {
+            CuckooHashTable<String> t = new CuckooHashTable<>( new StringHashFamily( 2 ), INITIAL_SIZE, sizing, 4 );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "incrementalCuckoo", sizing -> {
+            CuckooHashTable<String> t = new CuckooHashTable<>( new StringHashFamily( 3 ), INITIAL_SIZE, sizing, 1, true );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "quadratic", sizing -> {
+            QuadraticProbingHashTable<String> t = new QuadraticProbingHashTable<>( INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "incrementalQuadratic", sizing -> {
+            QuadraticProbingHashTable<String> t = new QuadraticProbingHashTable<>( INITIAL_SIZE, sizing, true );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "flat", sizing -> {
+            FlatQuadraticProbingHashTable<String> t = new FlatQuadraticProbingHashTable<>( INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "robinHood", sizing -> {
+            RobinHoodHashTable<String> t = new RobinHoodHashTable<>( INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "swiss", sizing -> {
+            if( sizing != TableSizing.POWER_OF_TWO )
+                return null;
+            SwissHashTable<String> t = new SwissHashTable<>( INITIAL_SIZE );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "offHeap", sizing -> {
+            if( sizing != TableSizing.POWER_OF_TWO )
+                return null;
+            OffHeapStringHashTable t = new OffHeapStringHashTable( INITIAL_SIZE );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "chaining", sizing -> {
+            SeparateChainingHashTable<String> t = new SeparateChainingHashTable<>( INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "incrementalChaining", sizing -> {
+            SeparateChainingHashTable<String> t = new SeparateChainingHashTable<>( INITIAL_SIZE, sizing, true );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "flatChaining", sizing -> {
+            FlatSeparateChainingHashTable<String> t = new FlatSeparateChainingHashTable<>( INITIAL_SIZE, sizing );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        TABLES.put( "filteredCuckoo", sizing -> {
+            FilteredHashTable<String> t = new FilteredHashTable<>(
+                    new CuckooHashTable<>( new StringHashFamily( 3 ), INITIAL_SIZE, sizing ),
+                    new FastStringHashFamily( 2 ) );
+            return subject( t::insert, t::contains, t::remove );
+        } );
+        TABLES.put( "filteredChaining", sizing -> {
+            FilteredHashTable<String> t = new FilteredHashTable<>(
+                    new SeparateChainingHashTable<>( INITIAL_SIZE, sizing ), new FastStringHashFamily( 2 ) );
+            return subject( t::insert, t::contains, t::remove );
+        } );
+        TABLES.put( "shardedQuadratic", sizing -> {
+            ShardedHashTable<String> t = new ShardedHashTable<>(
+                    SHARDS, i -> new QuadraticProbingHashTable<>( INITIAL_SIZE, sizing ) );
+            return subject( t::insert, t::contains, t::remove );
+        } );
+        CONCURRENT.add( "shardedQuadratic" );
+        TABLES.put( "concurrentChaining", sizing -> {
+            if( sizing != TableSizing.POWER_OF_TWO )
+                return null;
+            ConcurrentSeparateChainingHashTable<String> t = new ConcurrentSeparateChainingHashTable<>( INITIAL_SIZE );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        CONCURRENT.add( "concurrentChaining" );
+        TABLES.put( "concurrentCuckoo", sizing -> {
+            if( sizing != TableSizing.POWER_OF_TWO )
+                return null;
+            ConcurrentCuckooHashTable<String> t =
+                    new ConcurrentCuckooHashTable<>( ( ) -> new StringHashFamily( 3 ), INITIAL_SIZE );
+            return subject( t::insert, t::contains, t::remove, t::size, t::capacity );
+        } );
+        CONCURRENT.add( "concurrentCuckoo" );
+    }
+
+    private static Subject subject( Predicate<String> insert,
+                                    Predicate<String> contains,
+                                    Predicate<String> remove )
+    {
+        return subject( insert, contains, remove, null, null );
+    }
+
+    private static Subject subject( Predicate<String> insert,
+                                    Predicate<String> contains,
+                                    Predicate<String> remove,
+                                    IntSupplier size,
+                                    IntSupplier capacity )
+    {
+        return new Subject( )
+        {
+            public boolean insert( String x )   { return insert.test( x ); }
+            public boolean contains( String x ) { return contains.test( x ); }
+            public boolean remove( String x )   { return remove.test( x ); }
+
+            public double load( )
+            {
+                if( size == null )
+                    return Double.NaN;
+                return (double) size.getAsInt( ) / capacity.getAsInt( );
+            }
+        };
+    }
+
+        // Minimum number of operations in one timed region
+    private static final int MIN_OPS_PER_ROUND = 1 << 16;
+
+    private static final String RESULT_PREFIX = "RESULT ";
+
+    private String table = "all";
+    private String workload = "all";
+    private String sizing = "all";
+    private int threads = 1;
+    private int minExp = 4;
+    private int maxExp = 20;
+    private int expStep = 4;
+    private int warmup = 3;
+    private int iterations = 5;
+    private long iterationMillis = 100;
+    private long latencyOps = 1_000_000;
+    private int forks = 1;
+    private long seed = 42;
+    private boolean forked = false;   // set by the parent JVM of a fork
+
+        // Results keyed by "table workload size", one score per measured iteration
+    private final Map<String, List<Double>> results = new LinkedHashMap<>( );
+
+        // The load after the last measured iteration, with the same keys
+    private final Map<String, Double> loads = new LinkedHashMap<>( );
+
+        // The latencies of the operations timed one by one, with the same keys
+    private final Map<String, Latencies> latencies = new LinkedHashMap<>( );
+
+        // The load left by the most recent iteration
+    private double lastLoad;
+
+        // Consumes every operation result so the JIT cannot drop the calls
+    private static volatile int sink;
+
+    private HashTableBenchmark( String [ ] args )
+    {
+        for( int i = 0; i < args.length; i++ )
+        {
+            if( args[ i ].equals( "-forked" ) )
+            {
+                forked = true;
+                continue;
+            }
+
+            String value = i + 1 < args.length ? args[ i + 1 ] : null;
+            switch( args[ i ] )
+            {
+                case "-table":           table = value; break;
+                case "-workload":        workload = value; break;
+                case "-sizing":          sizing = value; break;
+                case "-threads":         threads = Integer.parseInt( value ); break;
+                case "-minExp":          minExp = Integer.parseInt( value ); break;
+                case "-maxExp":          maxExp = Integer.parseInt( value ); break;
+                case "-expStep":         expStep = Integer.parseInt( value ); break;
+                case "-warmup":          warmup = Integer.parseInt( value ); break;
+                case "-iterations":      iterations = Integer.parseInt( value ); break;
+                case "-iterationMillis": iterationMillis = Long.parseLong( value ); break;
+                case "-latencyOps":      latencyOps = Long.parseLong( value ); break;
+                case "-forks":           forks = Integer.parseInt( value ); break;
+                case "-seed":            seed = Long.parseLong( value ); break;
+                default:
+                    throw new IllegalArgumentException( "Unknown option: " + args[ i ] );
+            }
+            i++;
+        }
+
+        if( !table.equals( "all" ) && !TABLES.containsKey( table ) )
+            throw new IllegalArgumentException( "Unknown table: " + table );
+        if( !workload.equals( "all" ) )
+            Workload.byName( workload );
+        if( !sizing.equals( "all" ) )
+            sizingByName( sizing );
+        if( expStep < 1 )
+            throw new IllegalArgumentException( "expStep: " + expStep );
+    }
+
+    private static String sizingName( TableSizing s )
+    {
+        return s == TableSizing.PRIME ? "prime" : "powerOfTwo";
+    }
+
+    private static TableSizing sizingByName( String name )
+    {
+        for( TableSizing s : TableSizing.values( ) )
+            if( sizingName( s ).equals( name ) )
+                return s;
+        throw new IllegalArgumentException( "Unknown sizing: " + name );
+    }
+
+    private List<String> selectedTables( )
+    {
+        List<String> names = new ArrayList<>( );
+        for( String name : TABLES.keySet( ) )
+            if( ( table.equals( "all" ) || table.equals( name ) )
+                    && ( threads == 1 || CONCURRENT.contains( name ) ) )
+                names.add( name );
+        return names;
+    }
+
+    private List<TableSizing> selectedSizings( )
+    {
+        List<TableSizing> list = new ArrayList<>( );
+        for( TableSizing s : TableSizing.values( ) )
+            if( sizing.equals( "all" ) || sizing.equals( sizingName( s ) ) )
+                list.add( s );
+        return list;
+    }
+
+    private List<Workload> selectedWorkloads( )
+    {
+        List<Workload> list = new ArrayList<>( );
+        for( Workload w : Workload.values( ) )
+            if( workload.equals( "all" ) || workload.equals( w.name ) )
+                list.add( w );
+        return list;
+    }
+
+    /**
+     * Run every selected trial, either here or in forked JVMs,
+     * and print the summary.
+     */
+    private void run( ) throws IOException, InterruptedException
+    {
+        for( String name : selectedTables( ) )
+            for( TableSizing s : selectedSizings( ) )
+                for( Workload w : selectedWorkloads( ) )
+                {
+                    if( TABLES.get( name ).apply( s ) == null )
+                        continue;
+                    if( forks == 0 )
+                        runTrials( name, s, w );
+                    else
+                        for( int f = 0; f < forks; f++ )
+                            fork( name, s, w );
+                }
+
+        if( !forked )
+            printSummary( );
+    }
+
+    /**
+     * Run one table and workload in a fresh JVM with the same JVM
+     * options as this one, and collect the scores it reports.
+     */
+    private void fork( String name, TableSizing s, Workload w ) throws IOException, InterruptedException
+    {
+        List<String> command = new ArrayList<>( );
+        command.add( System.getProperty( "java.home" ) + File.separator + "bin" + File.separator + "java" );
+        command.addAll( ManagementFactory.getRuntimeMXBean( ).getInputArguments( ) );
+        command.add( "-cp" );
+        command.add( System.getProperty( "java.class.path" ) );
+        command.add( HashTableBenchmark.class.getName( ) );
+        command.add( "-table" );           command.add( name );
+        command.add( "-workload" );        command.add( w.name );
+        command.add( "-sizing" );          command.add( sizingName( s ) );
+        command.add( "-threads" );         command.add( String.valueOf( threads ) );
+        command.add( "-minExp" );          command.add( String.valueOf( minExp ) );
+        command.add( "-maxExp" );          command.add( String.valueOf( maxExp ) );
+        command.add( "-expStep" );         command.add( String.valueOf( expStep ) );
+        command.add( "-warmup" );          command.add( String.valueOf( warmup ) );
+        command.add( "-iterations" );      command.add( String.valueOf( iterations ) );
+        command.add( "-iterationMillis" ); command.add( String.valueOf( iterationMillis ) );
+        command.add( "-latencyOps" );      command.add( String.valueOf( latencyOps ) );
+        command.add( "-seed" );            command.add( String.valueOf( seed ) );
+        command.add( "-forks" );           command.add( "0" );
+        command.add( "-forked" );
+
+        Process p = new ProcessBuilder( command ).redirectErrorStream( true ).start( );
+        try( BufferedReader in = new BufferedReader( new InputStreamReader( p.getInputStream( ) ) ) )
+        {
+            String line;
+            while( ( line = in.readLine( ) ) != null )
+            {
+                if( line.startsWith( RESULT_PREFIX ) )
+                    parseResult( line.substring( RESULT_PREFIX.length( ) ) );
+                else
+                    System.out.println( line );
+            }
+        }
+
+        if( p.waitFor( ) != 0 )
+            throw new IllegalStateException( "Forked benchmark failed for " + name + " " + w.name );
+    }
+
+    private void parseResult( String line )
+    {
+        String [ ] parts = line.split( " " );
+        String key = parts[ 0 ] + " " + parts[ 1 ] + " " + parts[ 2 ];
+        List<Double> scores = results.computeIfAbsent( key, k -> new ArrayList<>( ) );
+        for( String s : parts[ 3 ].split( "," ) )
+            scores.add( Double.parseDouble( s ) );
+        loads.put( key, Double.parseDouble( parts[ 4 ] ) );
+        if( !parts[ 5 ].equals( "-" ) )
+            latencies.computeIfAbsent( key, k -> new Latencies( ) ).add( Latencies.decode( parts[ 5 ] ) );
+    }
+
+    /**
+     * Run every size of one table and workload in this JVM.
+     */
+    private void runTrials( String name, TableSizing s, Workload w ) throws InterruptedException
+    {
+        Function<TableSizing, Subject> tables = TABLES.get( name );
+        Supplier<Subject> factory = ( ) -> tables.apply( s );
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool( threads ) : null;
+
+        for( int exp = minExp; exp <= maxExp; exp += expStep )
+        {
+            int size = 1 << exp;
+            Random rand = new Random( seed + exp );
+            String [ ] present = new String[ size ];
+            String [ ] absent = new String[ size ];
+            for( int i = 0; i < size; i++ )
+                present[ i ] = genRandStr( rand );
+            for( int i = 0; i < size; i++ )
+                absent[ i ] = genRandStr( rand );
+
+            for( int i = 0; i < warmup; i++ )
+                iteration( factory, w, present, absent, pool );
+
+            List<Double> scores = new ArrayList<>( );
+            for( int i = 0; i < iterations; i++ )
+                scores.add( iteration( factory, w, present, absent, pool ) );
+            Latencies lat = latencyOps > 0 ? latencies( factory, w, present, absent, pool ) : null;
+
+            StringBuilder line = new StringBuilder( RESULT_PREFIX );
+            line.append( name ).append( '/' ).append( sizingName( s ) );
+            if( threads > 1 )
+                line.append( '/' ).append( threads ).append( 't' );
+            line.append( ' ' ).append( w.name ).append( ' ' ).append( size ).append( ' ' );
+            for( int i = 0; i < scores.size( ); i++ )
+                line.append( i == 0 ? "" : "," ).append( scores.get( i ) );
+            line.append( ' ' ).append( lastLoad );
+            line.append( ' ' ).append( lat != null ? lat.encode( ) : "-" );
+            if( forked )
+                System.out.println( line );
+            else
+                parseResult( line.substring( RESULT_PREFIX.length( ) ) );
+        }
+
+        if( pool != null )
+            pool.shutdown( );
+    }
+
+    /**
+     * Run one iteration: timed rounds until at least iterationMillis
+     * of work has been measured.
+     * @return the throughput of the iteration in operations per second.
+     */
+    private double iteration( Supplier<Subject> factory, Workload w, String [ ] present, String [ ] absent,
+                              ExecutorService pool ) throws InterruptedException
+    {
+        int size = present.length;
+        int batch = w.mutates ? Math.max( 1, MIN_OPS_PER_ROUND / size ) : 1;
+        int reps = w.mutates ? 1 : Math.max( 1, MIN_OPS_PER_ROUND / size );
+
+        long timedNanos = 0;
+        long ops = 0;
+        Subject [ ] subjects = null;
+
+        while( timedNanos < iterationMillis * 1_000_000L )
+        {
+            if( subjects == null || w.mutates )
+                subjects = setup( factory, w, present, batch );
+
+            long start = System.nanoTime( );
+            int acc = pool == null ? run( subjects, reps, w, present, absent, 0, 1 )
+                                   : runShared( pool, subjects, reps, w, present, absent );
+            timedNanos += System.nanoTime( ) - start;
+
+            sink += acc;
+            ops += (long) reps * batch * size;
+        }
+
+        lastLoad = subjects[ 0 ].load( );
+
+        return ops * 1e9 / timedNanos;
+    }
+
+    /**
+     * Time operations one by one, in passes like those of the
+     * iterations, each over a fresh table if the workload changes it,
+     * until at least latencyOps have been timed.
+     * @return the latencies of every thread together.
+     */
+    private Latencies latencies( Supplier<Subject> factory, Workload w, String [ ] present, String [ ] absent,
+                                 ExecutorService pool ) throws InterruptedException
+    {
+        Latencies [ ] perThread = new Latencies[ threads ];
+        for( int t = 0; t < threads; t++ )
+            perThread[ t ] = new Latencies( );
+
+        Subject s = null;
+        for( long timed = 0; timed < latencyOps; timed += present.length )
+        {
+            if( s == null || w.mutates )
+                s = setup( factory, w, present, 1 )[ 0 ];
+
+            if( pool == null )
+                sink += timedPass( s, w, present, absent, 0, 1, perThread[ 0 ] );
+            else
+            {
+                Subject shared = s;
+                List<Callable<Integer>> tasks = new ArrayList<>( );
+                for( int t = 0; t < threads; t++ )
+                {
+                    int from = t;
+                    tasks.add( ( ) -> timedPass( shared, w, present, absent, from, threads, perThread[ from ] ) );
+                }
+                sink += sum( pool.invokeAll( tasks ) );
+            }
+        }
+
+        for( int t = 1; t < threads; t++ )
+            perThread[ 0 ].add( perThread[ t ] );
+        return perThread[ 0 ];
+    }
+
+    private static Subject [ ] setup( Supplier<Subject> factory, Workload w, String [ ] present, int batch )
+    {
+        Subject [ ] subjects = new Subject[ batch ];
+        for( int b = 0; b < batch; b++ )
+        {
+            subjects[ b ] = factory.get( );
+            if( w.prefill )
+                for( String x : present )
+                    subjects[ b ].insert( x );
+        }
+        return subjects;
+    }
+
+    private static int run( Subject [ ] subjects, int reps, Workload w, String [ ] present, String [ ] absent,
+                            int from, int step )
+    {
+        int acc = 0;
+        for( int r = 0; r < reps; r++ )
+            for( Subject s : subjects )
+                acc += pass( s, w, present, absent, from, step );
+        return acc;
+    }
+
+    /**
+     * Run the timed passes on every thread of the pool, thread t taking
+     * the keys at positions t, t + threads, t + 2 * threads, and so on.
+     */
+    private int runShared( ExecutorService pool, Subject [ ] subjects, int reps, Workload w,
+                           String [ ] present, String [ ] absent ) throws InterruptedException
+    {
+        List<Callable<Integer>> tasks = new ArrayList<>( );
+        for( int t = 0; t < threads; t++ )
+        {
+            int from = t;
+            tasks.add( ( ) -> run( subjects, reps, w, present, absent, from, threads ) );
+        }
+
+        return sum( pool.invokeAll( tasks ) );
+    }
+
+    /**
+     * Add up the results of the tasks of one pass.
+     */
+    private static int sum( List<Future<Integer>> results ) throws InterruptedException
+    {
+        int acc = 0;
+        try
+        {
+            for( Future<Integer> f : results )
+                acc += f.get( );
+        }
+        catch( ExecutionException e )
+        {
+            throw new IllegalStateException( "Benchmark thread failed", e.getCause( ) );
+        }
+        return acc;
+    }
+
+    /**
+     * One timed pass of the workload over the key positions
+     * from, from + step, from + 2 * step, and so on.
+     * @return the number of operations that reported success.
+     */
+    private static int pass( Subject s, Workload w, String [ ] present, String [ ] absent, int from, int step )
+    {
+        int hits = 0;
+        for( int i = from; i < present.length; i += step )
+            if( operation( s, w, present, absent, i ) )
+                hits++;
+        return hits;
+    }
+
+    /**
+     * A pass as above that times every operation on its own.
+     * @param latencies the histogram to count the latencies in.
+     * @return the number of operations that reported success.
+     */
+    private static int timedPass( Subject s, Workload w, String [ ] present, String [ ] absent, int from, int step,
+                                  Latencies latencies )
+    {
+        int hits = 0;
+        for( int i = from; i < present.length; i += step )
+        {
+            long start = System.nanoTime( );
+            boolean r = operation( s, w, present, absent, i );
+            latencies.record( System.nanoTime( ) - start );
+            if( r )
+                hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * The operation of the workload at key position i.
+     * @return true if it reported success.
+     */
+    private static boolean operation( Subject s, Workload w, String [ ] present, String [ ] absent, int i )
+    {
+        switch( w )
+        {
+            case INSERT:        return s.insert( present[ i ] );
+            case CONTAINS_HIT:  return s.contains( present[ i ] );
+            case CONTAINS_MISS: return s.contains( absent[ i ] );
+            case REMOVE:        return s.remove( present[ i ] );
+            default:
+                    // Half lookups (hits and misses), a quarter inserts, a quarter removes
+                switch( i & 3 )
+                {
+                    case 0:  return s.contains( present[ i ] );
+                    case 1:  return s.insert( absent[ i ] );
+                    case 2:  return s.contains( absent[ i ^ 1 ] );
+                    default: return s.remove( present[ i ] );
+                }
+        }
+    }
+
+    private void printSummary( )
+    {
+        System.out.println( String.format( Locale.ROOT, "%-34s %-13s %10s %16s %14s %12s %10s %10s %10s %10s %12s %8s",
+                                           "table", "workload", "size", "ops/s", "+/- stddev", "ns/op",
+                                           "p50 ns", "p90 ns", "p99 ns", "p99.9 ns", "max ns", "load" ) );
+        for( Map.Entry<String, List<Double>> e : results.entrySet( ) )
+        {
+            String [ ] key = e.getKey( ).split( " " );
+            List<Double> scores = e.getValue( );
+
+            double mean = 0;
+            for( double s : scores )
+                mean += s;
+            mean /= scores.size( );
+
+            double variance = 0;
+            for( double s : scores )
+                variance += ( s - mean ) * ( s - mean );
+            double stddev = scores.size( ) > 1 ? Math.sqrt( variance / ( scores.size( ) - 1 ) ) : 0;
+
+            double load = loads.get( e.getKey( ) );
+            Latencies lat = latencies.get( e.getKey( ) );
+            System.out.println( String.format( Locale.ROOT, "%-34s %-13s %10s %16.0f %14.0f %12.2f %10s %10s %10s %10s %12s %8s",
+                                               key[ 0 ], key[ 1 ], key[ 2 ], mean, stddev, 1e9 / mean,
+                                               lat == null ? "-" : lat.percentile( 0.50 ),
+                                               lat == null ? "-" : lat.percentile( 0.90 ),
+                                               lat == null ? "-" : lat.percentile( 0.99 ),
+                                               lat == null ? "-" : lat.percentile( 0.999 ),
+                                               lat == null ? "-" : lat.max( ),
+                                               Double.isNaN( load ) ? "-"
+                                                                   : String.format( Locale.ROOT, "%.3f", load ) ) );
+        }
+    }
+
+    /**
+     * A histogram of operation latencies in nanoseconds. Latencies
+     * below SUB_BUCKETS have a bucket each; above, each power of two
+     * is split into SUB_BUCKETS buckets, so a bucket is at most about
+     * 3% as wide as the latencies in it. A percentile is reported as
+     * the largest latency of its bucket.
+     */
+    private static final class Latencies
+    {
+        private static final int SUB_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        private final long [ ] counts = new long[ ( 64 - SUB_BITS ) * SUB_BUCKETS ];
+        private long total;
+        private long max;
+
+        void record( long nanos )
+        {
+            nanos = Math.max( nanos, 0 );
+            counts[ bucket( nanos ) ]++;
+            total++;
+            max = Math.max( max, nanos );
+        }
+
+        void add( Latencies other )
+        {
+            for( int b = 0; b < counts.length; b++ )
+                counts[ b ] += other.counts[ b ];
+            total += other.total;
+            max = Math.max( max, other.max );
+        }
+
+        long max( )
+        {
+            return max;
+        }
+
+        /**
+         * The latency that a fraction p of the operations do not exceed.
+         */
+        long percentile( double p )
+        {
+            long rank = Math.max( 1, (long) Math.ceil( p * total ) );
+            long seen = 0;
+            for( int b = 0; b < counts.length; b++ )
+            {
+                seen += counts[ b ];
+                if( seen >= rank )
+                    return Math.min( highest( b ), max );
+            }
+            return max;
+        }
+
+        /**
+         * The histogram as text without spaces, for a RESULT line:
+         * the maximum, then bucket:count for every bucket in use.
+         */
+        String encode( )
+        {
+            StringBuilder sb = new StringBuilder( ).append( max ).append( '/' );
+            String separator = "";
+            for( int b = 0; b < counts.length; b++ )
+                if( counts[ b ] != 0 )
+                {
+                    sb.append( separator ).append( b ).append( ':' ).append( counts[ b ] );
+                    separator = ",";
+                }
+            return sb.toString( );
+        }
+
+        static Latencies decode( String s )
+        {
+            Latencies lat = new Latencies( );
+            int slash = s.indexOf( '/' );
+            lat.max = Long.parseLong( s.substring( 0, slash ) );
+            if( slash + 1 < s.length( ) )
+                for( String entry : s.substring( slash + 1 ).split( "," ) )
+                {
+                    int colon = entry.indexOf( ':' );
+                    long count = Long.parseLong( entry.substring( colon + 1 ) );
+                    lat.counts[ Integer.parseInt( entry.substring( 0, colon ) ) ] = count;
+                    lat.total += count;
+                }
+            return lat;
+        }
+
+        private static int bucket( long nanos )
+        {
+            if( nanos < SUB_BUCKETS )
+                return (int) nanos;
+            int shift = 63 - Long.numberOfLeadingZeros( nanos ) - SUB_BITS;
+            return ( shift + 1 ) * SUB_BUCKETS + (int) ( nanos >>> shift ) - SUB_BUCKETS;
+        }
+
+        private static long highest( int b )
+        {
+            if( b < SUB_BUCKETS )
+                return b;
+            int shift = b / SUB_BUCKETS - 1;
+            long low = (long) ( SUB_BUCKETS + b % SUB_BUCKETS ) << shift;
+            return low + ( 1L << shift ) - 1;
+        }
+    }
+
+    public static void main( String [ ] args ) throws IOException, InterruptedException
+    {
+        new HashTableBenchmark( args ).run( );
+    }
+}
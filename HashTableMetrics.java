@@ -0,0 +1,285 @@
+package hashTable;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// HashTableMetrics class
+//
+// CONSTRUCTION: with no parameters, then given to a table's setMetrics
+//
+// ******************PUBLIC OPERATIONS*********************
+// HashTableMetrics snapshot( ) --> Return a copy of the current values
+// void reset( )          --> Set every count back to zero
+// void register( name )  --> Publish through JMX as hashTable:name=...
+// void unregister( )     --> Withdraw from JMX
+// long getSearches( ), ... --> Read one value; see HashTableMetricsMXBean
+
+/**
+ * Counters and histograms of what a hash table does on its hot paths:
+ * how many cells or chain entries each search examines, how many
+ * items a cuckoo insertion displaces and how often it gives up, and
+ * how many rehashes there are and how long they take.
+ * <p>
+ * A table records nothing until it is given a HashTableMetrics with
+ * setMetrics; until then each hot path pays one null check. Recording
+ * is a few unsynchronized field updates by the threads using the
+ * table, so values read from another thread, such as a JMX client,
+ * may lag slightly behind. One instance may serve several tables of
+ * one thread to add up their counts.
+ * <p>
+ * A search is one walk along a probe sequence, chain or set of
+ * cuckoo buckets, whether for a lookup, an insert, a remove or moving
+ * an item during a resize; its length is the number of cells or
+ * entries it compared. A placement is a cuckoo insertion of an item,
+ * new or moved by a resize; its displacements are the items it
+ * evicted. A failed placement found no chain of moves to an empty
+ * cell, and then either went to the stash or forced a rehash.
+ * A rehash is timed from start to finish; in incremental mode
+ * that excludes the moving done by later operations.
+ */
+public class HashTableMetrics implements HashTableMetricsMXBean
+{
+    /**
+     * Record a search.
+     * @param length the number of cells or entries examined.
+     */
+    void recordSearch( int length )
+    {
+        searches++;
+        probeTotal += length;
+        probeLengths[ bucket( length ) ]++;
+    }
+
+    /**
+     * Record a cuckoo placement that succeeded.
+     * @param displacements the number of items evicted on the way.
+     */
+    void recordPlacement( int displacements )
+    {
+        placements++;
+        displacementTotal += displacements;
+        displacementCounts[ bucket( displacements ) ]++;
+    }
+
+    /**
+     * Record a cuckoo placement that found no chain of moves to an
+     * empty cell.
+     */
+    void recordFailedPlacement( )
+    {
+        failedPlacements++;
+    }
+
+    /**
+     * Record a failed cuckoo placement that put the item in the stash.
+     */
+    void recordStashed( )
+    {
+        stashed++;
+    }
+
+    /**
+     * Record a cuckoo table growing because too many rehashes with
+     * new hash functions failed, rather than because of its load.
+     */
+    void recordForcedExpansion( )
+    {
+        forcedExpansions++;
+    }
+
+    /**
+     * Record a cuckoo table drawing new hash functions.
+     */
+    void recordNewHashFunctions( )
+    {
+        newHashFunctions++;
+    }
+
+    /**
+     * Record a rehash.
+     * @param nanos how long it took.
+     */
+    void recordRehash( long nanos )
+    {
+        rehashes++;
+        rehashTotalNanos += nanos;
+        rehashMaxNanos = Math.max( rehashMaxNanos, nanos );
+        lastRehashNanos = nanos;
+    }
+
+    public long getSearches( )
+    {
+        return searches;
+    }
+
+    public long [ ] getProbeLengthHistogram( )
+    {
+        return probeLengths.clone( );
+    }
+
+    public double getMeanProbeLength( )
+    {
+        return searches == 0 ? 0 : (double) probeTotal / searches;
+    }
+
+    public long getPlacements( )
+    {
+        return placements;
+    }
+
+    public long [ ] getDisplacementHistogram( )
+    {
+        return displacementCounts.clone( );
+    }
+
+    public double getMeanDisplacements( )
+    {
+        return placements == 0 ? 0 : (double) displacementTotal / placements;
+    }
+
+    public long getFailedPlacements( )
+    {
+        return failedPlacements;
+    }
+
+    public long getStashed( )
+    {
+        return stashed;
+    }
+
+    public long getForcedExpansions( )
+    {
+        return forcedExpansions;
+    }
+
+    public long getNewHashFunctions( )
+    {
+        return newHashFunctions;
+    }
+
+    public long getRehashes( )
+    {
+        return rehashes;
+    }
+
+    public long getRehashTotalNanos( )
+    {
+        return rehashTotalNanos;
+    }
+
+    public long getRehashMaxNanos( )
+    {
+        return rehashMaxNanos;
+    }
+
+    public long getLastRehashNanos( )
+    {
+        return lastRehashNanos;
+    }
+
+    /**
+     * Set every count back to zero.
+     */
+    public void reset( )
+    {
+        copy( new HashTableMetrics( ), this );
+    }
+
+    /**
+     * Get a copy of the current values, which no table updates.
+     * @return the copy.
+     */
+    public HashTableMetrics snapshot( )
+    {
+        HashTableMetrics s = new HashTableMetrics( );
+        copy( this, s );
+        return s;
+    }
+
+    /**
+     * Publish these metrics through the platform MBean server, as
+     * hashTable:type=HashTableMetrics,name=name.
+     * @param name the name of the table, unique among registered ones.
+     * @throws IllegalStateException if the registration fails.
+     */
+    public void register( String name )
+    {
+        try
+        {
+            ObjectName on = new ObjectName( "hashTable:type=HashTableMetrics,name=" + ObjectName.quote( name ) );
+            ManagementFactory.getPlatformMBeanServer( ).registerMBean( this, on );
+            objectName = on;
+        }
+        catch( JMException e )
+        {
+            throw new IllegalStateException( "Cannot register metrics " + name, e );
+        }
+    }
+
+    /**
+     * Withdraw these metrics from the platform MBean server,
+     * if they were registered.
+     */
+    public void unregister( )
+    {
+        if( objectName == null )
+            return;
+
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer( ).unregisterMBean( objectName );
+        }
+        catch( JMException e )
+        {
+            throw new IllegalStateException( "Cannot unregister metrics " + objectName, e );
+        }
+        objectName = null;
+    }
+
+    private static void copy( HashTableMetrics from, HashTableMetrics to )
+    {
+        to.searches = from.searches;
+        to.probeTotal = from.probeTotal;
+        System.arraycopy( from.probeLengths, 0, to.probeLengths, 0, BUCKETS );
+        to.placements = from.placements;
+        to.displacementTotal = from.displacementTotal;
+        System.arraycopy( from.displacementCounts, 0, to.displacementCounts, 0, BUCKETS );
+        to.failedPlacements = from.failedPlacements;
+        to.stashed = from.stashed;
+        to.forcedExpansions = from.forcedExpansions;
+        to.newHashFunctions = from.newHashFunctions;
+        to.rehashes = from.rehashes;
+        to.rehashTotalNanos = from.rehashTotalNanos;
+        to.rehashMaxNanos = from.rehashMaxNanos;
+        to.lastRehashNanos = from.lastRehashNanos;
+    }
+
+    /**
+     * Internal method to choose the histogram bucket of a value:
+     * 0 for 0, and i for 2^(i-1) up to 2^i - 1.
+     */
+    private static int bucket( int n )
+    {
+        return Math.min( 32 - Integer.numberOfLeadingZeros( n ), BUCKETS - 1 );
+    }
+
+    private static final int BUCKETS = 16;
+
+    private long searches;
+    private long probeTotal;                                // Sum of the search lengths
+    private final long [ ] probeLengths = new long[ BUCKETS ];
+    private long placements;
+    private long displacementTotal;                         // Sum of the displacements
+    private final long [ ] displacementCounts = new long[ BUCKETS ];
+    private long failedPlacements;
+    private long stashed;
+    private long forcedExpansions;
+    private long newHashFunctions;
+    private long rehashes;
+    private long rehashTotalNanos;
+    private long rehashMaxNanos;
+    private long lastRehashNanos;
+
+    private ObjectName objectName;    // Set while registered
+}
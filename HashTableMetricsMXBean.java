@@ -0,0 +1,28 @@
+package hashTable;
+
+/**
+ * The management interface of HashTableMetrics, as seen through JMX.
+ * Histogram bucket 0 counts zeros, and bucket i counts values from
+ * 2^(i-1) to 2^i - 1; the last bucket also counts everything larger.
+ */
+public interface HashTableMetricsMXBean
+{
+    long getSearches( );
+    long [ ] getProbeLengthHistogram( );
+    double getMeanProbeLength( );
+
+    long getPlacements( );
+    long [ ] getDisplacementHistogram( );
+    double getMeanDisplacements( );
+    long getFailedPlacements( );
+    long getStashed( );
+    long getForcedExpansions( );
+    long getNewHashFunctions( );
+
+    long getRehashes( );
+    long getRehashTotalNanos( );
+    long getRehashMaxNanos( );
+    long getLastRehashNanos( );
+
+    void reset( );
+}
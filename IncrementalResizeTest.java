@@ -0,0 +1,83 @@
+package hashTable;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+// IncrementalResizeTest class
+//
+// USAGE: java -ea hashTable.IncrementalResizeTest
+//
+// Runs random inserts, removes and lookups against tables in
+// incremental mode and against a HashSet, and fails on the first
+// answer that differs. Small initial sizes make almost every
+// operation land in the middle of a resize, with lookups searching
+// both the new and the old array.
+
+/**
+ * Regression test for incremental resizing. A quadratic probing table
+ * that started its resize only after passing its maximum load left an
+ * old PRIME array more than half full, whose probes for a missing item
+ * ran off its end. A separate chaining table now creates its lists
+ * only on insert, so lookups and removes must cope with missing ones.
+ */
+public class IncrementalResizeTest
+{
+    private static final int SEEDS = 500;
+    private static final int OPERATIONS = 2000;
+    private static final int KEY_RANGE = 300;
+
+    public static void main( String [ ] args )
+    {
+        for( TableSizing sizing : TableSizing.values( ) )
+            for( int size : new int[ ] { 1, 3, 5, 11 } )
+                for( int seed = 0; seed < SEEDS; seed++ )
+                {
+                    check( "quadratic " + sizing + " size " + size,
+                           new QuadraticProbingHashTable<>( size, sizing, true ), seed );
+                    check( "chaining " + sizing + " size " + size,
+                           new SeparateChainingHashTable<>( size, sizing, true ), seed );
+                }
+
+        System.out.println( "OK" );
+    }
+
+    /**
+     * Run one random sequence of operations against a table and a
+     * HashSet, failing if they ever disagree.
+     * @param name what the table is, for the failure message.
+     * @param t the empty table.
+     * @param seed the seed of the sequence.
+     */
+    private static void check( String name, HashTable<Integer> t, int seed )
+    {
+        Set<Integer> expected = new HashSet<>( );
+        Random r = new Random( seed );
+
+        for( int i = 0; i < OPERATIONS; i++ )
+        {
+            Integer x = r.nextInt( KEY_RANGE );
+            boolean got;
+            boolean want;
+            switch( r.nextInt( 3 ) )
+            {
+              case 0:
+                got = t.insert( x );
+                want = expected.add( x );
+                break;
+              case 1:
+                got = t.remove( x );
+                want = expected.remove( x );
+                break;
+              default:
+                got = t.contains( x );
+                want = expected.contains( x );
+                break;
+            }
+
+            if( got != want || t.size( ) != expected.size( ) )
+                throw new AssertionError( name + ", seed " + seed + ", operation " + i
+                                          + ": got " + got + " for " + x + ", expected " + want );
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package hashTable;
+
+// LoadPolicy class
+//
+// CONSTRUCTION: a maximum load, and optionally a growth factor
+//               (default 2), a shrink load (default 0, never shrink)
+//               and an expected size (default 0, no hint)
+//
+// ******************PUBLIC OPERATIONS*********************
+// double getMaxLoad( )     --> Return the load at which a table grows
+// double getGrowthFactor( ) --> Return how much a table grows by
+// double getShrinkLoad( )  --> Return the load below which a table shrinks
+// int  getExpectedSize( )  --> Return the number of items to size for
+// LoadPolicy withExpectedSize( n ) --> Return a copy expecting n items
+
+/**
+ * When a hash table grows and shrinks. The load is the number of
+ * items, or occupied cells for QuadraticProbingHashTable, divided by
+ * the length of the array. A table grows by the growth factor when an
+ * insert would take it past the maximum load, and, if the shrink load
+ * is not 0, shrinks when a remove takes it below the shrink load.
+ * <p>
+ * A low maximum load and a high growth factor keep probes short and
+ * resizes rare, at the cost of memory; a high maximum load and a low
+ * growth factor do the opposite. A table shrinks to half its maximum
+ * load, never below its initial length, so the shrink load must be
+ * under a quarter of the maximum load: rounding the new length up to
+ * the table's sizing scheme can halve that load again, and a table
+ * just shrunk must not be ready to shrink once more.
+ * <p>
+ * The expected size, when given, is the number of items the table is
+ * first sized for, and replaces the initial size of the constructors
+ * that take none. Each table also checks the maximum load against
+ * what its probing needs.
+ */
+public final class LoadPolicy
+{
+    /**
+     * Construct a policy that doubles the table and never shrinks it.
+     * @param maxLoad the load at which the table grows.
+     */
+    public LoadPolicy( double maxLoad )
+    {
+        this( maxLoad, 2, 0, 0 );
+    }
+
+    /**
+     * Construct a policy.
+     * @param maxLoad the load at which the table grows.
+     * @param growthFactor how many times longer the array gets, more than 1.
+     * @param shrinkLoad the load below which the table shrinks, or 0 never to shrink.
+     * @param expectedSize the number of items to size the table for, or 0.
+     */
+    public LoadPolicy( double maxLoad, double growthFactor, double shrinkLoad, int expectedSize )
+    {
+        if( !( maxLoad > 0 ) || Double.isInfinite( maxLoad ) )
+            throw new IllegalArgumentException( "maxLoad: " + maxLoad );
+        if( !( growthFactor > 1 ) || Double.isInfinite( growthFactor ) )
+            throw new IllegalArgumentException( "growthFactor: " + growthFactor );
+        if( !( shrinkLoad >= 0 && shrinkLoad < maxLoad / 4 ) )
+            throw new IllegalArgumentException( "shrinkLoad: " + shrinkLoad
+                                                + " (must be under maxLoad / 4)" );
+        if( expectedSize < 0 )
+            throw new IllegalArgumentException( "expectedSize: " + expectedSize );
+
+        this.maxLoad = maxLoad;
+        this.growthFactor = growthFactor;
+        this.shrinkLoad = shrinkLoad;
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * Get the maximum load.
+     * @return the load at which the table grows.
+     */
+    public double getMaxLoad( )
+    {
+        return maxLoad;
+    }
+
+    /**
+     * Get the growth factor.
+     * @return how many times longer the array gets when it grows.
+     */
+    public double getGrowthFactor( )
+    {
+        return growthFactor;
+    }
+
+    /**
+     * Get the shrink load.
+     * @return the load below which the table shrinks, or 0.
+     */
+    public double getShrinkLoad( )
+    {
+        return shrinkLoad;
+    }
+
+    /**
+     * Get the expected size.
+     * @return the number of items the table is first sized for, or 0.
+     */
+    public int getExpectedSize( )
+    {
+        return expectedSize;
+    }
+
+    /**
+     * Make a copy of this policy with another expected size.
+     * @param n the number of items to size the table for, or 0.
+     * @return the new policy.
+     */
+    public LoadPolicy withExpectedSize( int n )
+    {
+        return new LoadPolicy( maxLoad, growthFactor, shrinkLoad, n );
+    }
+
+    /**
+     * The initial length of a table: enough for the expected size,
+     * if there is one.
+     * @param defaultLength the length to use otherwise.
+     */
+    int initialLength( int defaultLength )
+    {
+        return expectedSize > 0 ? lengthFor( expectedSize ) : defaultLength;
+    }
+
+    /**
+     * A length at which n items are below the maximum load.
+     */
+    int lengthFor( int n )
+    {
+        return (int) Math.min( n / maxLoad + 1, MAX_LENGTH );
+    }
+
+    /**
+     * The number of items, or occupied cells, a table of this length
+     * may hold before it grows.
+     */
+    int maxSize( int length )
+    {
+        return (int) Math.min( length * maxLoad, Integer.MAX_VALUE );
+    }
+
+    /**
+     * The number of items below which a table of this length shrinks.
+     * @param minLength the initial length of the table.
+     * @return the count, or 0 if the table never shrinks from this length.
+     */
+    int shrinkSize( int length, int minLength )
+    {
+        return length > minLength ? (int) ( length * shrinkLoad ) : 0;
+    }
+
+    /**
+     * The length a table grows to.
+     */
+    int grownLength( int length )
+    {
+        return (int) Math.max( length + 1, Math.min( length * growthFactor, MAX_LENGTH ) );
+    }
+
+    /**
+     * The length a table of n items shrinks to: half the maximum
+     * load, but no shorter than the initial length.
+     */
+    int shrunkLength( int n, int minLength )
+    {
+        return Math.max( minLength, (int) ( 2 * n / maxLoad ) );
+    }
+
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;   // The largest array most VMs allocate
+
+    private final double maxLoad;
+    private final double growthFactor;
+    private final double shrinkLoad;
+    private final int expectedSize;
+}
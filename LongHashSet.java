@@ -0,0 +1,220 @@
+package hashTable;
+
+// LongHashSet class
+//
+// CONSTRUCTION: an approximate initial size or default of 16
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+
+/**
+ * Open addressing hash set of long keys, stored unboxed in a primitive array.
+ * A zero cell is empty; the key zero itself is kept in a separate flag,
+ * so every long value can be stored. The array has a power-of-two length
+ * and is probed linearly from the mixed hash of the key. Removal shifts
+ * the rest of the cluster back into the freed cell, so no deleted
+ * markers are ever left behind.
+ */
+public class LongHashSet
+{
+    /**
+     * Construct the hash set.
+     */
+    public LongHashSet( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash set.
+     * @param size the approximate number of items it will hold.
+     */
+    public LongHashSet( int size )
+    {
+        allocateArray( (int) Math.min( (long) ( size / MAX_LOAD ) + 1, Integer.MAX_VALUE ) );
+    }
+
+    /**
+     * Insert into the hash set. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( long x )
+    {
+        if( x == EMPTY )
+        {
+            if( containsEmptyKey )
+                return false;
+            containsEmptyKey = true;
+            theSize++;
+            return true;
+        }
+
+        int currentPos = findPos( x );
+        if( array[ currentPos ] == x )
+            return false;
+
+        array[ currentPos ] = x;
+        theSize++;
+
+        if( ++occupied > maxOccupied )
+            rehash( );
+
+        return true;
+    }
+
+    /**
+     * Remove from the hash set.
+     * @param x the item to remove.
+     * @return true if item removed
+     */
+    public boolean remove( long x )
+    {
+        if( x == EMPTY )
+        {
+            if( !containsEmptyKey )
+                return false;
+            containsEmptyKey = false;
+            theSize--;
+            return true;
+        }
+
+        int currentPos = findPos( x );
+        if( array[ currentPos ] == EMPTY )
+            return false;
+
+        shiftBack( currentPos );
+        occupied--;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Find an item in the hash set.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( long x )
+    {
+        if( x == EMPTY )
+            return containsEmptyKey;
+
+        return array[ findPos( x ) ] == x;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return array.length;
+    }
+
+    /**
+     * Make the hash set logically empty.
+     */
+    public void makeEmpty( )
+    {
+        for( int i = 0; i < array.length; i++ )
+            array[ i ] = EMPTY;
+        containsEmptyKey = false;
+        occupied = 0;
+        theSize = 0;
+    }
+
+    /**
+     * Method that performs linear probing resolution.
+     * @param x the item to search for, never EMPTY.
+     * @return the position of x, or of the empty cell ending the search.
+     */
+    private int findPos( long x )
+    {
+        int currentPos = myhash( x );
+
+        while( array[ currentPos ] != EMPTY && array[ currentPos ] != x )
+            currentPos = ( currentPos + 1 ) & mask;
+
+        return currentPos;
+    }
+
+    /**
+     * Close the gap left at pos by moving back every later item of
+     * the cluster whose home position is not between the gap and it.
+     * @param pos the cell being emptied.
+     */
+    private void shiftBack( int pos )
+    {
+        int gap = pos;
+
+        for( int i = ( gap + 1 ) & mask; array[ i ] != EMPTY; i = ( i + 1 ) & mask )
+        {
+            int home = myhash( array[ i ] );
+            if( ( ( i - home ) & mask ) >= ( ( i - gap ) & mask ) )
+            {
+                array[ gap ] = array[ i ];
+                gap = i;
+            }
+        }
+
+        array[ gap ] = EMPTY;
+    }
+
+    /**
+     * Expand the hash set.
+     */
+    private void rehash( )
+    {
+        long [ ] oldArray = array;
+
+            // Create a new double-sized, empty table
+        allocateArray( 2 * oldArray.length );
+
+            // Copy table over
+        for( long x : oldArray )
+            if( x != EMPTY )
+                array[ findPos( x ) ] = x;
+    }
+
+    private int myhash( long x )
+    {
+        return (int) TableSizing.mix( x ) & mask;
+    }
+
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.75;
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    private long [ ] array;            // The items, EMPTY for empty cells
+    private int mask;                  // array.length - 1
+    private int maxOccupied;           // Rehash once occupied exceeds this
+    private int occupied;              // The number of non-empty cells
+    private int theSize;               // Current size, including the zero key
+    private boolean containsEmptyKey;  // True if zero is in the set
+
+    /**
+     * Internal method to allocate array.
+     * @param arraySize the minimum size of the array.
+     */
+    private void allocateArray( int arraySize )
+    {
+        array = new long[ TableSizing.POWER_OF_TWO.capacity( arraySize ) ];
+        mask = array.length - 1;
+        maxOccupied = (int) ( array.length * MAX_LOAD );
+    }
+}
@@ -0,0 +1,265 @@
+package hashTable;
+
+// LongLongHashMap class
+//
+// CONSTRUCTION: an approximate initial size or default of 16
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool put( k, v )       --> Map k to v
+// long get( k )          --> Return the value of k, or 0
+// long getOrDefault( k, d ) --> Return the value of k, or d
+// bool remove( k )       --> Remove k
+// bool containsKey( k )  --> Return true if k is present
+// void makeEmpty( )      --> Remove all entries
+// int  size( )           --> Return number of entries
+// int  capacity( )       --> Return length of internal arrays
+
+/**
+ * Open addressing hash map from long keys to long values, with the
+ * keys stored unboxed in a primitive array and the values in a parallel
+ * array. A zero key cell is empty; the key zero itself is kept in a
+ * separate slot, so every long value can be used as a key. The arrays
+ * have a power-of-two length and are probed linearly from the mixed hash
+ * of the key. Removal shifts the rest of the cluster back into the freed
+ * cell, so no deleted markers are ever left behind.
+ */
+public class LongLongHashMap
+{
+    /**
+     * Construct the hash map.
+     */
+    public LongLongHashMap( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param size the approximate number of entries it will hold.
+     */
+    public LongLongHashMap( int size )
+    {
+        allocateArrays( (int) Math.min( (long) ( size / MAX_LOAD ) + 1, Integer.MAX_VALUE ) );
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value.
+     * @return true if the key was not present before.
+     */
+    public boolean put( long key, long value )
+    {
+        if( key == EMPTY )
+        {
+            emptyKeyValue = value;
+            if( containsEmptyKey )
+                return false;
+            containsEmptyKey = true;
+            theSize++;
+            return true;
+        }
+
+        int currentPos = findPos( key );
+        vals[ currentPos ] = value;
+        if( keys[ currentPos ] == key )
+            return false;
+
+        keys[ currentPos ] = key;
+        theSize++;
+
+        if( ++occupied > maxOccupied )
+            rehash( );
+
+        return true;
+    }
+
+    /**
+     * Get the value a key maps to.
+     * @param key the key.
+     * @return the value, or 0 if the key is not present.
+     */
+    public long get( long key )
+    {
+        return getOrDefault( key, 0 );
+    }
+
+    /**
+     * Get the value a key maps to.
+     * @param key the key.
+     * @param defaultValue the value to return if the key is not present.
+     * @return the value, or defaultValue if the key is not present.
+     */
+    public long getOrDefault( long key, long defaultValue )
+    {
+        if( key == EMPTY )
+            return containsEmptyKey ? emptyKeyValue : defaultValue;
+
+        int currentPos = findPos( key );
+        return keys[ currentPos ] == key ? vals[ currentPos ] : defaultValue;
+    }
+
+    /**
+     * Remove a key and its value from the hash map.
+     * @param key the key to remove.
+     * @return true if the key was removed.
+     */
+    public boolean remove( long key )
+    {
+        if( key == EMPTY )
+        {
+            if( !containsEmptyKey )
+                return false;
+            containsEmptyKey = false;
+            emptyKeyValue = 0;
+            theSize--;
+            return true;
+        }
+
+        int currentPos = findPos( key );
+        if( keys[ currentPos ] == EMPTY )
+            return false;
+
+        shiftBack( currentPos );
+        occupied--;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Find a key in the hash map.
+     * @param key the key to search for.
+     * @return true if the key is present.
+     */
+    public boolean containsKey( long key )
+    {
+        if( key == EMPTY )
+            return containsEmptyKey;
+
+        return keys[ findPos( key ) ] == key;
+    }
+
+    /**
+     * Get current size.
+     * @return the number of entries.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return keys.length;
+    }
+
+    /**
+     * Make the hash map logically empty.
+     */
+    public void makeEmpty( )
+    {
+        for( int i = 0; i < keys.length; i++ )
+        {
+            keys[ i ] = EMPTY;
+            vals[ i ] = 0;
+        }
+        containsEmptyKey = false;
+        emptyKeyValue = 0;
+        occupied = 0;
+        theSize = 0;
+    }
+
+    /**
+     * Method that performs linear probing resolution.
+     * @param key the key to search for, never EMPTY.
+     * @return the position of key, or of the empty cell ending the search.
+     */
+    private int findPos( long key )
+    {
+        int currentPos = myhash( key );
+
+        while( keys[ currentPos ] != EMPTY && keys[ currentPos ] != key )
+            currentPos = ( currentPos + 1 ) & mask;
+
+        return currentPos;
+    }
+
+    /**
+     * Close the gap left at pos by moving back every later entry of
+     * the cluster whose home position is not between the gap and it.
+     * @param pos the cell being emptied.
+     */
+    private void shiftBack( int pos )
+    {
+        int gap = pos;
+
+        for( int i = ( gap + 1 ) & mask; keys[ i ] != EMPTY; i = ( i + 1 ) & mask )
+        {
+            int home = myhash( keys[ i ] );
+            if( ( ( i - home ) & mask ) >= ( ( i - gap ) & mask ) )
+            {
+                keys[ gap ] = keys[ i ];
+                vals[ gap ] = vals[ i ];
+                gap = i;
+            }
+        }
+
+        keys[ gap ] = EMPTY;
+        vals[ gap ] = 0;
+    }
+
+    /**
+     * Expand the hash map.
+     */
+    private void rehash( )
+    {
+        long [ ] oldKeys = keys;
+        long [ ] oldVals = vals;
+
+            // Create new double-sized, empty arrays
+        allocateArrays( 2 * oldKeys.length );
+
+            // Copy table over
+        for( int i = 0; i < oldKeys.length; i++ )
+            if( oldKeys[ i ] != EMPTY )
+            {
+                int currentPos = findPos( oldKeys[ i ] );
+                keys[ currentPos ] = oldKeys[ i ];
+                vals[ currentPos ] = oldVals[ i ];
+            }
+    }
+
+    private int myhash( long key )
+    {
+        return (int) TableSizing.mix( key ) & mask;
+    }
+
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.75;
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    private long [ ] keys;             // The keys, EMPTY for empty cells
+    private long [ ] vals;             // The values, parallel to keys
+    private int mask;                  // keys.length - 1
+    private int maxOccupied;           // Rehash once occupied exceeds this
+    private int occupied;              // The number of non-empty cells
+    private int theSize;               // Current size, including the zero key
+    private boolean containsEmptyKey;  // True if zero is a key
+    private long emptyKeyValue;        // The value of the zero key
+
+    /**
+     * Internal method to allocate arrays.
+     * @param arraySize the minimum size of the arrays.
+     */
+    private void allocateArrays( int arraySize )
+    {
+        keys = new long[ TableSizing.POWER_OF_TWO.capacity( arraySize ) ];
+        vals = new long[ keys.length ];
+        mask = keys.length - 1;
+        maxOccupied = (int) ( keys.length * MAX_LOAD );
+    }
+}
@@ -0,0 +1,499 @@
+package hashTable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// OffHeapString Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+// long memoryUsed( )     --> Return bytes of native memory held
+
+/**
+ * Hash set of strings whose contents live outside the Java heap.
+ * <p>
+ * Each key is stored once, as a length and its UTF-8 bytes, in an arena
+ * of direct buffers. The slot array, also a direct buffer, is probed
+ * linearly; a slot holds the key's 32-bit hash in its high half and the
+ * key's arena offset in its low half. The hash gives the home position
+ * of every slot, so growing the table and removing with backward shift
+ * never read the arena, and the bytes of a key are only compared when
+ * all 32 bits of the hash match.
+ * <p>
+ * The heap holds a handful of buffer objects whatever the number of
+ * keys, so the garbage collector has nothing to trace or copy as the
+ * set grows. The native memory must be allowed with
+ * -XX:MaxDirectMemorySize; it is returned when the buffers are
+ * collected. Removed keys leave dead bytes in the arena, which is
+ * compacted once they outweigh the live ones.
+ * <p>
+ * Arena offsets are kept in units of 4 bytes, so the arena may grow to
+ * 16GB, and the slot array to 2^30 slots. The table is not thread-safe.
+ */
+public class OffHeapStringHashTable
+{
+    /**
+     * Construct the hash table.
+     */
+    public OffHeapStringHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate number of items it will hold.
+     */
+    public OffHeapStringHashTable( int size )
+    {
+        allocateSlots( (int) Math.min( (long) ( size / MAX_LOAD ) + 1, MAX_SLOTS ) );
+        allocateArena( );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     * @throws IllegalArgumentException if x encodes to more than
+     *         about 128MB.
+     * @throws IllegalStateException if the slot array or the arena
+     *         has reached its maximum size.
+     */
+    public boolean insert( String x )
+    {
+        int hashVal = hash( x );
+        byte [ ] key = x.getBytes( StandardCharsets.UTF_8 );
+
+        int currentPos = findPos( x, key, hashVal );
+        if( slot( currentPos ) != EMPTY )
+            return false;
+
+        if( theSize >= maxSize )
+        {
+            if( mask + 1 == MAX_SLOTS )
+                throw new IllegalStateException( "Table full" );
+            rehash( );
+            currentPos = freePos( hashVal );
+        }
+
+        setSlot( currentPos, (long) hashVal << 32 | append( key ) );
+        theSize++;
+        return true;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if item removed
+     */
+    public boolean remove( String x )
+    {
+        int currentPos = findPos( x, null, hash( x ) );
+        long s = slot( currentPos );
+        if( s == EMPTY )
+            return false;
+
+        garbage += entrySize( offset( s ) );
+        shiftBack( currentPos );
+        theSize--;
+
+        if( garbage > arenaEnd / 2 && arenaEnd > INITIAL_CHUNK_SIZE )
+            compact( );
+
+        return true;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( String x )
+    {
+        return slot( findPos( x, null, hash( x ) ) ) != EMPTY;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the number of slots.
+     */
+    public int capacity( )
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Get the native memory held by the slots and the arena.
+     * @return the number of bytes.
+     */
+    public long memoryUsed( )
+    {
+        long bytes = 0;
+        for( ByteBuffer page : pages )
+            bytes += page.capacity( );
+        for( ByteBuffer chunk : chunks )
+            bytes += chunk.capacity( );
+        return bytes;
+    }
+
+    /**
+     * Make the hash table logically empty. The slot array keeps its
+     * length; the arena goes back to its initial size.
+     */
+    public void makeEmpty( )
+    {
+        for( ByteBuffer page : pages )
+            for( int i = 0; i < page.capacity( ); i += 8 )
+                page.putLong( i, EMPTY );
+        allocateArena( );
+        theSize = 0;
+    }
+
+    /**
+     * Method that performs linear probing resolution.
+     * @param x the item to search for.
+     * @param key the UTF-8 bytes of x, or null to encode them
+     *        only if a slot with the same hash is met.
+     * @param hashVal the hash of x.
+     * @return the position of x, or of the empty slot ending the search.
+     */
+    private int findPos( String x, byte [ ] key, int hashVal )
+    {
+        int currentPos = hashVal & mask;
+
+        for( long s; ( s = slot( currentPos ) ) != EMPTY; currentPos = ( currentPos + 1 ) & mask )
+            if( (int) ( s >>> 32 ) == hashVal )
+            {
+                if( key == null )
+                    key = x.getBytes( StandardCharsets.UTF_8 );
+                if( keyEquals( offset( s ), key ) )
+                    break;
+            }
+
+        return currentPos;
+    }
+
+    /**
+     * Internal method to find the empty slot where an item with
+     * the given hash would be placed.
+     * @param hashVal the hash of the item.
+     * @return the position of the slot.
+     */
+    private int freePos( int hashVal )
+    {
+        int currentPos = hashVal & mask;
+
+        while( slot( currentPos ) != EMPTY )
+            currentPos = ( currentPos + 1 ) & mask;
+
+        return currentPos;
+    }
+
+    /**
+     * Close the gap left at pos by moving back every later slot of
+     * the cluster whose home position is not between the gap and it.
+     * @param pos the slot being emptied.
+     */
+    private void shiftBack( int pos )
+    {
+        int gap = pos;
+
+        for( int i = ( gap + 1 ) & mask; slot( i ) != EMPTY; i = ( i + 1 ) & mask )
+        {
+            int home = (int) ( slot( i ) >>> 32 ) & mask;
+            if( ( ( i - home ) & mask ) >= ( ( i - gap ) & mask ) )
+            {
+                setSlot( gap, slot( i ) );
+                gap = i;
+            }
+        }
+
+        setSlot( gap, EMPTY );
+    }
+
+    /**
+     * Expand the slot array. The arena is untouched.
+     */
+    private void rehash( )
+    {
+        ByteBuffer [ ] oldPages = pages;
+
+            // Create a new double-sized, empty slot array
+        allocateSlots( 2 * ( mask + 1 ) );
+
+            // Copy the slots over
+        for( ByteBuffer page : oldPages )
+            for( int i = 0; i < page.capacity( ); i += 8 )
+            {
+                long s = page.getLong( i );
+                if( s != EMPTY )
+                    setSlot( freePos( (int) ( s >>> 32 ) ), s );
+            }
+    }
+
+    /**
+     * Copy the live keys into a new arena, dropping the dead bytes,
+     * and point their slots at the new offsets.
+     */
+    private void compact( )
+    {
+        List<ByteBuffer> oldChunks = chunks;
+        allocateArena( );
+
+        for( int i = 0; i <= mask; i++ )
+        {
+            long s = slot( i );
+            if( s != EMPTY )
+                setSlot( i, s & ~REF_MASK | append( readKey( oldChunks, offset( s ) ) ) );
+        }
+    }
+
+    /**
+     * Internal method to copy a key to the end of the arena.
+     * An entry never spans two chunks.
+     * @param key the UTF-8 bytes of the key.
+     * @return the reference to the entry, to be stored in a slot.
+     */
+    private long append( byte [ ] key )
+    {
+        int size = entrySize( key.length );
+        if( size > CHUNK_SIZE )
+            throw new IllegalArgumentException( "Key too long: " + key.length + " bytes" );
+
+        long offset = arenaEnd;
+        if( ( offset & CHUNK_MASK ) + size > CHUNK_SIZE )
+        {
+            garbage += CHUNK_SIZE - ( offset & CHUNK_MASK );
+            offset = ( offset | CHUNK_MASK ) + 1;
+        }
+        if( offset + size > MAX_ARENA )
+            throw new IllegalStateException( "Arena full" );
+
+        int c = (int) ( offset >>> CHUNK_SHIFT );
+        int pos = (int) ( offset & CHUNK_MASK );
+        if( c == chunks.size( ) )
+            chunks.add( ByteBuffer.allocateDirect( CHUNK_SIZE ) );
+        else if( pos + size > chunks.get( c ).capacity( ) )
+            chunks.set( c, grow( chunks.get( c ), pos, pos + size ) );
+
+        ByteBuffer chunk = chunks.get( c );
+        pos = putLength( chunk, pos, key.length );
+        for( byte b : key )
+            chunk.put( pos++, b );
+
+        arenaEnd = offset + size;
+        return ( offset >>> 2 ) + 1;
+    }
+
+    /**
+     * Internal method to compare the key at an arena offset with
+     * the bytes of another.
+     */
+    private boolean keyEquals( long offset, byte [ ] key )
+    {
+        ByteBuffer chunk = chunks.get( (int) ( offset >>> CHUNK_SHIFT ) );
+        int pos = (int) ( offset & CHUNK_MASK );
+
+        int len = getLength( chunk, pos );
+        pos += lengthSize( len );
+        if( len != key.length )
+            return false;
+
+        for( int i = 0; i < len; i++ )
+            if( chunk.get( pos + i ) != key[ i ] )
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Internal method to read the key at an offset of an arena.
+     */
+    private static byte [ ] readKey( List<ByteBuffer> from, long offset )
+    {
+        ByteBuffer chunk = from.get( (int) ( offset >>> CHUNK_SHIFT ) );
+        int pos = (int) ( offset & CHUNK_MASK );
+
+        int len = getLength( chunk, pos );
+        pos += lengthSize( len );
+
+        byte [ ] key = new byte[ len ];
+        for( int i = 0; i < len; i++ )
+            key[ i ] = chunk.get( pos + i );
+        return key;
+    }
+
+    /**
+     * Internal method to get the arena size of the entry at an offset.
+     */
+    private int entrySize( long offset )
+    {
+        ByteBuffer chunk = chunks.get( (int) ( offset >>> CHUNK_SHIFT ) );
+        return entrySize( getLength( chunk, (int) ( offset & CHUNK_MASK ) ) );
+    }
+
+    /**
+     * The arena size of an entry: the length in 7-bit groups and
+     * the bytes, rounded up to a multiple of 4.
+     */
+    private static int entrySize( int len )
+    {
+        return ( lengthSize( len ) + len + 3 ) & ~3;
+    }
+
+    /**
+     * Internal method to read a length written by putLength.
+     */
+    private static int getLength( ByteBuffer chunk, int pos )
+    {
+        int len = 0;
+        for( int shift = 0; ; shift += 7 )
+        {
+            byte b = chunk.get( pos++ );
+            len |= ( b & 0x7F ) << shift;
+            if( b >= 0 )
+                return len;
+        }
+    }
+
+    /**
+     * The number of bytes putLength writes for a length.
+     */
+    private static int lengthSize( int len )
+    {
+        int size = 1;
+        for( len >>>= 7; len != 0; len >>>= 7 )
+            size++;
+        return size;
+    }
+
+    /**
+     * Internal method to write a length in 7-bit groups, low first,
+     * with the high bit set on all but the last.
+     * @return the position after the length.
+     */
+    private static int putLength( ByteBuffer chunk, int pos, int len )
+    {
+        for( ; len >= 0x80; len >>>= 7 )
+            chunk.put( pos++, (byte) ( len | 0x80 ) );
+        chunk.put( pos++, (byte) len );
+        return pos;
+    }
+
+    /**
+     * Internal method to replace the first chunk by a larger copy.
+     * @param chunk the chunk.
+     * @param used the number of bytes in use.
+     * @param needed the minimum capacity.
+     * @return the new chunk.
+     */
+    private static ByteBuffer grow( ByteBuffer chunk, int used, int needed )
+    {
+        int newCapacity = chunk.capacity( );
+        while( newCapacity < needed )
+            newCapacity *= 2;
+
+        ByteBuffer bigger = ByteBuffer.allocateDirect( Math.min( newCapacity, CHUNK_SIZE ) );
+        ByteBuffer src = chunk.duplicate( );
+        src.limit( used ).position( 0 );
+        bigger.put( src );
+        bigger.clear( );
+        return bigger;
+    }
+
+    private long slot( int pos )
+    {
+        return pages[ pos >>> PAGE_SHIFT ].getLong( ( pos & PAGE_MASK ) << 3 );
+    }
+
+    private void setSlot( int pos, long s )
+    {
+        pages[ pos >>> PAGE_SHIFT ].putLong( ( pos & PAGE_MASK ) << 3, s );
+    }
+
+    private static long offset( long s )
+    {
+        return ( ( s & REF_MASK ) - 1 ) << 2;
+    }
+
+    private int hash( String x )
+    {
+        return (int) FastStringHashFamily.hash64( x, seed );
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final double MAX_LOAD = 0.75;
+    private static final int MAX_SLOTS = 1 << 30;
+
+    private static final long EMPTY = 0;
+    private static final long REF_MASK = 0xFFFFFFFFL;          // Low half of a slot: offset / 4 + 1
+    private static final long MAX_ARENA = REF_MASK << 2;
+
+    private static final int PAGE_SHIFT = 24;                  // 2^24 slots, 128MB, per page
+    private static final int PAGE_MASK = ( 1 << PAGE_SHIFT ) - 1;
+    private static final int CHUNK_SHIFT = 27;                 // 128MB per arena chunk
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CHUNK_SIZE = 1 << 12;
+
+    private final long seed = TableSizing.mix( new Random( ).nextLong( ) );
+
+    private ByteBuffer [ ] pages;      // The slots, EMPTY for empty
+    private int mask;                  // Number of slots - 1
+    private int maxSize;               // Rehash once the size reaches this
+    private int theSize;               // Current size
+
+    private List<ByteBuffer> chunks;   // Chunk i holds the arena from offset i * CHUNK_SIZE
+    private long arenaEnd;             // Offset of the next entry
+    private long garbage;              // Arena bytes no live key uses
+
+    /**
+     * Internal method to allocate the slot array.
+     * @param arraySize the minimum number of slots.
+     */
+    private void allocateSlots( int arraySize )
+    {
+        int length = TableSizing.POWER_OF_TWO.capacity( arraySize );
+        int pageLength = Math.min( length, 1 << PAGE_SHIFT );
+
+        pages = new ByteBuffer[ length / pageLength ];
+        for( int i = 0; i < pages.length; i++ )
+            pages[ i ] = ByteBuffer.allocateDirect( pageLength * 8 ).order( ByteOrder.nativeOrder( ) );
+
+        mask = length - 1;
+        maxSize = (int) ( length * MAX_LOAD );
+    }
+
+    /**
+     * Internal method to start an empty arena. Only the first chunk
+     * starts small; it doubles up to CHUNK_SIZE before the next is added.
+     */
+    private void allocateArena( )
+    {
+        chunks = new ArrayList<>( );
+        chunks.add( ByteBuffer.allocateDirect( INITIAL_CHUNK_SIZE ) );
+        arenaEnd = 0;
+        garbage = 0;
+    }
+}
@@ -1,27 +1,71 @@
 package hashTable;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 //QuadraticProbing Hash table class
 //
-//CONSTRUCTION: an approximate initial size or default of 101
+//CONSTRUCTION: an approximate initial size or default of 101,
+//              or a LoadPolicy (default: grow by doubling past half full),
+//              and optionally a TableSizing scheme (default PRIME)
+//              and incremental resizing (default off)
 //
 //******************PUBLIC OPERATIONS*********************
 //bool insert( x )       --> Insert x
 //bool remove( x )       --> Remove x
 //bool contains( x )     --> Return true if x is present
+//int  insertAll( c )    --> Insert the items of c, return number inserted
+//int  removeAll( c )    --> Remove the items of c, return number removed
+//bool containsAll( c )  --> Return true if every item of c is present
 //void makeEmpty( )      --> Remove all items
-
-
-import java.util.ArrayList;
-
-import static hashTable.GenerateRandomString.genRandStr;
+//int  size( )           --> Return number of items
+//Stream stream( )       --> Return a stream of the items; also iterator( ),
+//                           spliterator( ) and parallelStream( )
+//void setMetrics( m )   --> Record what the table does in m, or nothing if null
 
 /**
 * Probing table implementation of hash tables.
+* In incremental mode a resize keeps the old array live and each
+* insert or remove moves the next MIGRATION_STEP cells of it, so no
+* single operation pays for the whole table. Lookups search the new
+* array and then the part of the old array not moved yet; inserts
+* always go to the new array. The table grows before, not after, the
+* insert that would take it past its maximum load, so the old array
+* is never more than half full and its probes always end; and the
+* step is larger if the new array could otherwise fill up before the
+* old one is emptied.
+* <p>
+* Otherwise a table of at least PARALLEL_THRESHOLD cells is resized
+* in parallel on the common fork-join pool, one task per range of the
+* old array. Each task claims the cells of the new array with a
+* compare-and-set, and moves on along the probe sequence if another
+* task got there first. Since the moved items are distinct and no
+* cell is emptied, each ends up on its own probe sequence past only
+* occupied cells, just as if it had been inserted alone.
+* <p>
+* The bulk operations take a collection or an array. insertAll grows
+* the table once, up front, to hold all its items, instead of
+* doubling again and again as they arrive.
+* <p>
+* A LoadPolicy sets the load at which the table grows, counting
+* deleted cells, how much it grows, and whether it shrinks once
+* enough items are removed. The maximum load of a PRIME table may
+* not exceed one half, since beyond that quadratic probing is not
+* sure to find an empty cell; a POWER_OF_TWO table probes every cell
+* and only needs a maximum load under one.
+* <p>
+* Each entry keeps the hash code of its item. A probe compares it
+* before calling equals, and a resize places the entries by their
+* saved codes, so hashCode is called once per insert or search and
+* never while resizing.
 * Note that all "matching" is based on the equals method.
 * @author Mark Allen Weiss
 */
-public class QuadraticProbingHashTable<AnyType>
+public class QuadraticProbingHashTable<AnyType> implements HashTable<AnyType>
 {
  /**
   * Construct the hash table.
@@ -37,7 +81,65 @@ public class QuadraticProbingHashTable<AnyType>
   */
  public QuadraticProbingHashTable( int size )
  {
-     allocateArray( size );
+     this( size, TableSizing.PRIME );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param size the approximate initial size.
+  * @param sizing how the array is sized and indexed.
+  */
+ public QuadraticProbingHashTable( int size, TableSizing sizing )
+ {
+     this( size, sizing, false );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param size the approximate initial size.
+  * @param sizing how the array is sized and indexed.
+  * @param incremental true to spread each resize over later operations.
+  */
+ public QuadraticProbingHashTable( int size, TableSizing sizing, boolean incremental )
+ {
+     this( size, sizing, incremental, DEFAULT_POLICY );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param policy when the table grows and shrinks.
+  */
+ public QuadraticProbingHashTable( LoadPolicy policy )
+ {
+     this( policy, TableSizing.PRIME, false );
+ }
+
+ /**
+  * Construct the hash table.
+  * @param policy when the table grows and shrinks.
+  * @param sizing how the array is sized and indexed.
+  * @param incremental true to spread each resize over later operations.
+  */
+ public QuadraticProbingHashTable( LoadPolicy policy, TableSizing sizing, boolean incremental )
+ {
+     this( policy.initialLength( DEFAULT_TABLE_SIZE ), sizing, incremental, policy );
+ }
+
+ /**
+  * Internal constructor for all the others.
+  */
+ private QuadraticProbingHashTable( int size, TableSizing sizing, boolean incremental, LoadPolicy policy )
+ {
+     double maxLoad = policy.getMaxLoad( );
+     if( sizing == TableSizing.PRIME ? maxLoad > 0.5 : maxLoad >= 1 )
+         throw new IllegalArgumentException( "maxLoad: " + maxLoad + " (too high for " + sizing + " sizing)" );
+
+     this.sizing = sizing;
+     this.incremental = incremental;
+     this.policy = policy;
+     probeStep = sizing.probeStep( );
+     minLength = sizing.capacity( size );
+     allocateArray( minLength );
      doClear( );
  }
 
@@ -49,60 +151,333 @@ public class QuadraticProbingHashTable<AnyType>
  public boolean insert( AnyType x )
  {
          // Insert x as active
-     int currentPos = findPos( x );
+     int hashVal = x.hashCode( );
+     int currentPos = findPos( x, hashVal );
      if( isActive( currentPos ) )
          return false;
 
-     array[ currentPos ] = new HashEntry<>( x, true );
-     theSize++;
-     
+     insertAt( currentPos, x, hashVal, null );
+     return true;
+ }
+
+ /**
+  * Insert every item of a collection, as insert would one by one.
+  * @param items the items to insert.
+  * @return the number of items inserted.
+  */
+ public int insertAll( Collection<? extends AnyType> items )
+ {
+     reserve( items.size( ) );
+
+     int inserted = 0;
+     for( AnyType x : items )
+         if( insert( x ) )
+             inserted++;
+
+     return inserted;
+ }
+
+ /**
+  * Insert every item of an array, as insert would one by one.
+  * @param items the items to insert.
+  * @return the number of items inserted.
+  */
+ public int insertAll( AnyType [ ] items )
+ {
+     reserve( items.length );
+
+     int inserted = 0;
+     for( AnyType x : items )
+         if( insert( x ) )
+             inserted++;
+
+     return inserted;
+ }
+
+ /**
+  * Remove every item of a collection, as remove would one by one.
+  * @param items the items to remove.
+  * @return the number of items removed.
+  */
+ public int removeAll( Collection<? extends AnyType> items )
+ {
+     int removed = 0;
+     for( AnyType x : items )
+         if( remove( x ) )
+             removed++;
+
+     return removed;
+ }
+
+ /**
+  * Remove every item of an array, as remove would one by one.
+  * @param items the items to remove.
+  * @return the number of items removed.
+  */
+ public int removeAll( AnyType [ ] items )
+ {
+     int removed = 0;
+     for( AnyType x : items )
+         if( remove( x ) )
+             removed++;
+
+     return removed;
+ }
+
+ /**
+  * Find every item of a collection in the hash table.
+  * @param items the items to search for.
+  * @return true if all of them are present.
+  */
+ public boolean containsAll( Collection<? extends AnyType> items )
+ {
+     for( AnyType x : items )
+         if( !contains( x ) )
+             return false;
+
+     return true;
+ }
+
+ /**
+  * Find every item of an array in the hash table.
+  * @param items the items to search for.
+  * @return true if all of them are present.
+  */
+ public boolean containsAll( AnyType [ ] items )
+ {
+     for( AnyType x : items )
+         if( !contains( x ) )
+             return false;
+
+     return true;
+ }
+
+ /**
+  * Internal method to grow the table, if needed, so that n more
+  * items can be inserted without another resize. The resize is
+  * done at once, even in incremental mode, and so is a pending
+  * one, so that occupied counts every entry.
+  * @param n the number of items about to be inserted.
+  */
+ private void reserve( int n )
+ {
+     if( oldArray != null )
+         migrate( oldArray.length );
+     if( occupied + n > maxOccupied )
+     {
+         rehash( policy.lengthFor( theSize + n ) );
+         if( oldArray != null )
+             migrate( oldArray.length );
+     }
+ }
+
+ /**
+  * Internal method to insert at the position where findPos
+  * stopped for an item that is not active.
+  * @param currentPos the result of a call to findPos.
+  * @param x the item to insert.
+  * @param hashVal the hash code of x, as passed to findPos.
+  * @param value the value stored alongside x.
+  */
+ void insertAt( int currentPos, AnyType x, int hashVal, Object value )
+ {
          // Rehash; see Section 5.5
-     if( ++occupied > array.length / 2 )
+     if( array[ currentPos ] == null && occupied >= maxOccupied )
+     {
          rehash( );
-     
-     return true;
+         currentPos = findPos( array, x, hashVal );
+     }
+
+     if( array[ currentPos ] == null )
+         occupied++;
+     array[ currentPos ] = new HashEntry<>( x, hashVal, true, value );
+     theSize++;
+
+     if( oldArray != null )
+         migrate( migrationStep );
  }
 
  /**
-  * Expand the hash table.
+  * Expand the hash table. In incremental mode the active
+  * entries are moved by later operations.
   */
  private void rehash( )
  {
-     HashEntry<AnyType> [ ] oldArray = array;
+     rehash( policy.grownLength( array.length ) );
+ }
 
-         // Create a new double-sized, empty table
-     allocateArray( 2 * oldArray.length );
+ /**
+  * Move the active entries into a new array. In incremental
+  * mode they are moved by later operations.
+  * @param newLength the minimum length of the new array.
+  */
+ private void rehash( int newLength )
+ {
+     long startTime = metrics != null ? System.nanoTime( ) : 0;
+     if( oldArray != null )
+         migrate( oldArray.length );   // Finish the previous resize first
+
+     oldArray = array;
+     migrated = 0;
+
+         // Create a new, empty table
+     allocateArray( newLength );
      occupied = 0;
-     theSize = 0;
 
-         // Copy table over
-     for( HashEntry<AnyType> entry : oldArray )
+     if( !incremental )
+     {
+         if( oldArray.length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism( ) > 1 )
+             migrateInParallel( );
+         else
+             migrate( oldArray.length );
+     }
+     else
+     {
+             // Move enough per update that the items still to move and
+             // those inserted meanwhile never fill the new array
+         int room = maxOccupied - theSize - 1;
+         if( room <= 0 )
+             migrate( oldArray.length );
+         else
+             migrationStep = Math.max( MIGRATION_STEP, oldArray.length / room + 1 );
+     }
+
+     if( metrics != null )
+         metrics.recordRehash( System.nanoTime( ) - startTime );
+ }
+
+ /**
+  * Internal method to move every active entry of the old array at
+  * once, using the common fork-join pool.
+  */
+ private void migrateInParallel( )
+ {
+     HashEntry<AnyType> [ ] from = oldArray;
+     HashEntry<AnyType> [ ] to = array;
+     int parts = 4 * ForkJoinPool.getCommonPoolParallelism( );
+     int range = ( from.length + parts - 1 ) / parts;
+
+     occupied += IntStream.range( 0, parts ).parallel( ).map( p -> {
+         int moved = 0;
+         int end = Math.min( ( p + 1 ) * range, from.length );
+         for( int i = p * range; i < end; i++ )
+         {
+             HashEntry<AnyType> entry = from[ i ];
+             if( entry == null || !entry.isActive )
+                 continue;
+
+             int offset = 1;
+             int currentPos = sizing.index( entry.hash, to.length );
+             while( !CELLS.compareAndSet( to, currentPos, null, entry ) )
+             {
+                 currentPos += offset;  // Compute ith probe
+                 offset += probeStep;
+                 if( currentPos >= to.length )
+                     currentPos -= to.length;
+             }
+             moved++;
+         }
+         return moved;
+     } ).sum( );
+
+     migrated = from.length;
+     oldArray = null;
+ }
+
+ /**
+  * Internal method to move the active entries of the next cells
+  * of the old array, moving the entries themselves. The cells are
+  * left as they are, since they may lie on the probe sequence of
+  * an entry not moved yet.
+  * @param cells the maximum number of cells to move.
+  */
+ private void migrate( int cells )
+ {
+     int end = Math.min( migrated + cells, oldArray.length );
+     for( ; migrated < end; migrated++ )
+     {
+         HashEntry<AnyType> entry = oldArray[ migrated ];
          if( entry != null && entry.isActive )
-             insert( entry.element );
+         {
+             int currentPos = findPos( array, entry.element, entry.hash );
+             if( array[ currentPos ] == null )
+                 occupied++;
+             array[ currentPos ] = entry;
+         }
+     }
+
+     if( migrated == oldArray.length )
+         oldArray = null;
+ }
+
+ /**
+  * Method that performs quadratic probing resolution.
+  * While a resize is in progress, an active item not moved yet is
+  * found in the old array and reported as a negative position.
+  * @param x the item to search for.
+  * @return the position where the search terminates.
+  */
+ int findPos( AnyType x )
+ {
+     return findPos( x, x.hashCode( ) );
  }
 
  /**
   * Method that performs quadratic probing resolution.
   * @param x the item to search for.
+  * @param hashVal the hash code of x.
   * @return the position where the search terminates.
   */
- private int findPos( AnyType x )
+ int findPos( AnyType x, int hashVal )
+ {
+     int currentPos = findPos( array, x, hashVal );
+
+     if( oldArray != null && !isActive( currentPos ) )
+     {
+         int oldPos = findPos( oldArray, x, hashVal );
+         if( oldPos >= migrated && oldArray[ oldPos ] != null && oldArray[ oldPos ].isActive )
+             return ~oldPos;
+     }
+
+     return currentPos;
+ }
+
+ /**
+  * Internal method that performs quadratic probing resolution in one array.
+  * @param table the array to search.
+  * @param x the item to search for.
+  * @param hashVal the hash code of x.
+  * @return the position where the search terminates.
+  */
+ private int findPos( HashEntry<AnyType> [ ] table, AnyType x, int hashVal )
  {
      int offset = 1;
-     int currentPos = myhash( x );
+     int currentPos = sizing.index( hashVal, table.length );
      
-     while( array[ currentPos ] != null &&
-             !array[ currentPos ].element.equals( x ) )
+     while( table[ currentPos ] != null &&
+             ( table[ currentPos ].hash != hashVal || !table[ currentPos ].element.equals( x ) ) )
      {
          currentPos += offset;  // Compute ith probe
-         offset += 2;
-         if( currentPos >= array.length )
-             currentPos -= array.length;
+         offset += probeStep;
+         if( currentPos >= table.length )
+             currentPos -= table.length;
      }
-     
+
+     if( metrics != null )
+         metrics.recordSearch( ( offset - 1 ) / probeStep + 1 );
      return currentPos;
  }
 
+ /**
+  * Internal method to get the entry at a position found by findPos.
+  * @param currentPos the result of a call to findPos.
+  * @return the entry, which may be null.
+  */
+ private HashEntry<AnyType> entryAt( int currentPos )
+ {
+     return currentPos >= 0 ? array[ currentPos ] : oldArray[ ~currentPos ];
+ }
+
  /**
   * Remove from the hash table.
   * @param x the item to remove.
@@ -113,13 +488,49 @@ public class QuadraticProbingHashTable<AnyType>
      int currentPos = findPos( x );
      if( isActive( currentPos ) )
      {
-         array[ currentPos ].isActive = false;
-         theSize--;
+         removeAt( currentPos );
          return true;
      }
      else
          return false;
  }
+
+ /**
+  * Internal method to remove the active item at a position found by findPos.
+  * @param currentPos the position of the item.
+  */
+ void removeAt( int currentPos )
+ {
+     HashEntry<AnyType> entry = entryAt( currentPos );
+     entry.isActive = false;
+     entry.value = null;
+     theSize--;
+
+     if( theSize < shrinkSize )
+         rehash( policy.shrunkLength( theSize, minLength ) );
+     else if( oldArray != null )
+         migrate( migrationStep );
+ }
+
+ /**
+  * Internal method to get the value stored alongside an active item.
+  * @param currentPos the position of the item, as found by findPos.
+  * @return the value.
+  */
+ Object valueAt( int currentPos )
+ {
+     return entryAt( currentPos ).value;
+ }
+
+ /**
+  * Internal method to replace the value stored alongside an active item.
+  * @param currentPos the position of the item, as found by findPos.
+  * @param value the new value.
+  */
+ void setValueAt( int currentPos, Object value )
+ {
+     entryAt( currentPos ).value = value;
+ }
  
  /**
   * Get current size.
@@ -155,9 +566,28 @@ public class QuadraticProbingHashTable<AnyType>
   * @param currentPos the result of a call to findPos.
   * @return true if currentPos is active.
   */
- private boolean isActive( int currentPos )
+ boolean isActive( int currentPos )
+ {
+     HashEntry<AnyType> entry = entryAt( currentPos );
+     return entry != null && entry.isActive;
+ }
+
+ /**
+  * Start or stop recording metrics.
+  * @param m the metrics to update, or null to record nothing.
+  */
+ public void setMetrics( HashTableMetrics m )
+ {
+     metrics = m;
+ }
+
+ /**
+  * Get the metrics being recorded.
+  * @return the metrics, or null if none.
+  */
+ public HashTableMetrics getMetrics( )
  {
-     return array[ currentPos ] != null && array[ currentPos ].isActive;
+     return metrics;
  }
 
  /**
@@ -168,46 +598,96 @@ public class QuadraticProbingHashTable<AnyType>
      doClear( );
  }
 
+ /**
+  * Make a spliterator over the active items, split by ranges of
+  * the array. A resize in progress is finished first.
+  * @return the spliterator.
+  */
+ public Spliterator<AnyType> spliterator( )
+ {
+     if( oldArray != null )
+         migrate( oldArray.length );
+     return new Cells<>( array, 0, array.length, theSize );
+ }
+
+ /**
+  * A spliterator over a range of an array of entries.
+  */
+ private static final class Cells<AnyType> extends CellSpliterator<AnyType>
+ {
+     Cells( HashEntry<AnyType> [ ] cells, int origin, int fence, long estimate )
+     {
+         super( origin, fence, estimate );
+         this.cells = cells;
+     }
+
+     AnyType itemAt( int pos )
+     {
+         HashEntry<AnyType> entry = cells[ pos ];
+         return entry != null && entry.isActive ? entry.element : null;
+     }
+
+     CellSpliterator<AnyType> split( int origin, int fence, long estimate )
+     {
+         return new Cells<>( cells, origin, fence, estimate );
+     }
+
+     private final HashEntry<AnyType> [ ] cells;
+ }
+
  private void doClear( )
  {
      occupied = 0;
+     theSize = 0;
+     oldArray = null;
      for( int i = 0; i < array.length; i++ )
          array[ i ] = null;
  }
  
- private int myhash( AnyType x )
- {
-     int hashVal = x.hashCode( );
 
-     hashVal %= array.length;
-     if( hashVal < 0 )
-         hashVal += array.length;
-
-     return hashVal;
- }
- 
  private static class HashEntry<AnyType>
  {
      public AnyType  element;   // the element
+     public int hash;           // the hash code of the element
      public boolean isActive;  // false if marked deleted
+     public Object value;      // the value mapped to the element, if any
 
      public HashEntry( AnyType e )
      {
-         this( e, true );
+         this( e, e.hashCode( ), true, null );
      }
 
-     public HashEntry( AnyType e, boolean i )
+     public HashEntry( AnyType e, int h, boolean i, Object v )
      {
          element  = e;
+         hash     = h;
          isActive = i;
+         value    = v;
      }
  }
 
  private static final int DEFAULT_TABLE_SIZE = 101;
-
+ private static final LoadPolicy DEFAULT_POLICY = new LoadPolicy( 0.5 );
+ private static final int MIGRATION_STEP = 8;   // Fewest cells moved per update while resizing
+ private static final int PARALLEL_THRESHOLD = 1 << 16;   // Cells below which resizing is sequential
+
+     /** Atomic access to the cells of an array, for parallel resizing. */
+ private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle( HashEntry[ ].class );
+
+ private final TableSizing sizing;     // How the array is sized and indexed
+ private final int probeStep;          // Growth of the probe offset
+ private final boolean incremental;    // Resizes are spread over later operations
+ private final LoadPolicy policy;      // When the array grows and shrinks
+ private final int minLength;          // The initial length, below which it never shrinks
  private HashEntry<AnyType> [ ] array; // The array of elements
+ private int maxOccupied;              // Occupied cells past which the array grows
+ private int shrinkSize;               // Size below which it shrinks, or 0
  private int occupied;                 // The number of occupied cells
  private int theSize;                  // Current size
+ private HashEntry<AnyType> [ ] oldArray; // The array being moved out of, or null
+ private int migrated;                 // Cells of oldArray already moved
+ private int migrationStep;            // Cells moved per update while resizing
+ private HashTableMetrics metrics;     // What the table does, or null
 
  /**
   * Internal method to allocate array.
@@ -215,106 +695,30 @@ public class QuadraticProbingHashTable<AnyType>
   */
  private void allocateArray( int arraySize )
  {
-     array = new HashEntry[ nextPrime( arraySize ) ];
+     array = newArray( sizing.capacity( arraySize ) );
+     maxOccupied = policy.maxSize( array.length );
+     shrinkSize = policy.shrinkSize( array.length, minLength );
  }
 
  /**
-  * Internal method to find a prime number at least as large as n.
-  * @param n the starting number (must be positive).
-  * @return a prime number larger than or equal to n.
+  * Internal method to allocate an array of entries.
+  * @param length the length of the array.
   */
- private static int nextPrime( int n )
+ @SuppressWarnings( "unchecked" )
+ private static <AnyType> HashEntry<AnyType> [ ] newArray( int length )
  {
-     if( n % 2 == 0 )
-         n++;
-
-     for( ; !isPrime( n ); n += 2 )
-         ;
-
-     return n;
- }
-
- /**
-  * Internal method to test if a number is prime.
-  * Not an efficient algorithm.
-  * @param n the number to test.
-  * @return the result of the test.
-  */
- private static boolean isPrime( int n )
- {
-     if( n == 2 || n == 3 )
-         return true;
-
-     if( n == 1 || n % 2 == 0 )
-         return false;
-
-     for( int i = 3; i * i <= n; i += 2 )
-         if( n % i == 0 )
-             return false;
-
-     return true;
+     return (HashEntry<AnyType> [ ]) new HashEntry<?>[ length ];
  }
 
 
-//Simple main
-public static void main( String [ ] args )
+// Simple main: benchmark this table, see HashTableBenchmark for options
+public static void main( String [ ] args ) throws Exception
 {
-    final int NUMS = 16;
-
-    // Outer for loop for looping 15 times
-    for(int i = 1; i < NUMS; i++)
-    {
-        QuadraticProbingHashTable<String> H = new QuadraticProbingHashTable<>( );
-
-        // Simple list for calculating average time for hash insertion
-        ArrayList<Double> timeElapsedInsertList = new ArrayList<Double>();
-
-        // list that will hold N number of random string for
-        // searching in the created hash later on section 2
-        ArrayList<String> listOfRandStr = new ArrayList<String>();
-
-        // Inner for loop for looping 2^i times
-        for(int j = 0; j < Math.pow(2, i); j++)
-        {
-            // Generating a random string list for part 2
-            listOfRandStr.add( genRandStr() );
-
-            double startTime = System.currentTimeMillis( );
-            H.insert( genRandStr() ); // Hash insertion
-            double endTime = System.currentTimeMillis( );
-            double timeElapsed = endTime - startTime;
-            timeElapsedInsertList.add(timeElapsed);
-        }
-
-        // Calculating average time elapsed
-        double totalTimeElapsed = 0;
-        for(int k = 0; k < timeElapsedInsertList.size(); k++)
-            totalTimeElapsed += timeElapsedInsertList.get(k);
-        System.out.println("Total time elapsed inserting: " + totalTimeElapsed);
-
-
-        // Simple list for calculating average time for hash search and delete
-        ArrayList<Double> timeElapsedSearchDeleteList = new ArrayList<Double>();
-
-        // Iterating over all the in the string list for searching in hash H
-        for (String str : listOfRandStr)
-        {
-            double startTime = System.currentTimeMillis( );
-            if ( H.contains( str ) )
-            {
-                H.remove( str );
-            }
-            double endTime = System.currentTimeMillis( );
-            double timeElapsed = endTime - startTime;
-            timeElapsedSearchDeleteList.add(timeElapsed);
-        }
-
-        // Calculating average time elapsed
-        double totalTimeElapsedSearchDelete = 0;
-        for(int k = 0; k < timeElapsedSearchDeleteList.size(); k++)
-            totalTimeElapsedSearchDelete += timeElapsedSearchDeleteList.get(k);
-        System.out.println("Total time elapsed searching and deleting: " + totalTimeElapsedSearchDelete);
-    }
+    String [ ] benchmarkArgs = new String[ args.length + 2 ];
+    benchmarkArgs[ 0 ] = "-table";
+    benchmarkArgs[ 1 ] = "quadratic";
+    System.arraycopy( args, 0, benchmarkArgs, 2, args.length );
+    HashTableBenchmark.main( benchmarkArgs );
 }
 }
 
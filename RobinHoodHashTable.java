@@ -0,0 +1,249 @@
+package hashTable;
+
+// RobinHood Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               and optionally a TableSizing scheme (default PRIME)
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+
+/**
+ * Linear probing implementation of hash tables with Robin Hood
+ * insertion: an item that has probed further than the occupant of a
+ * cell takes the cell, and the occupant moves on. Probe lengths stay
+ * short and even, even at high load.
+ * <p>
+ * Each cell records how far its item is from its home cell. A search
+ * stops as soon as it reaches a cell whose item is closer to home than
+ * the search has come, since the item sought would have displaced it.
+ * Remove shifts the following displaced items back one cell instead of
+ * leaving a deleted marker, so churn never lengthens probes.
+ * Note that all "matching" is based on the equals method.
+ */
+public class RobinHoodHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     */
+    public RobinHoodHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate initial size.
+     */
+    public RobinHoodHashTable( int size )
+    {
+        this( size, TableSizing.PRIME );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate initial size.
+     * @param sizing how the array is sized and indexed.
+     */
+    public RobinHoodHashTable( int size, TableSizing sizing )
+    {
+        this.sizing = sizing;
+        allocateArray( size );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int currentPos = myhash( x );
+        int dist = 1;
+
+            // Search until an empty cell or a richer item
+        while( dists[ currentPos ] >= dist )
+        {
+            if( dists[ currentPos ] == dist && array[ currentPos ].equals( x ) )
+                return false;
+
+            currentPos = next( currentPos );
+            dist++;
+        }
+
+        place( x, currentPos, dist );
+
+        if( ++theSize > array.length * MAX_LOAD )
+            rehash( );
+
+        return true;
+    }
+
+    /**
+     * Internal method to put an item in the cell where its search
+     * stopped, pushing richer items further along.
+     * @param x the item, not present in the table.
+     * @param currentPos the cell where the search for x stopped.
+     * @param dist the probe distance of x at that cell, plus one.
+     */
+    private void place( Object x, int currentPos, int dist )
+    {
+        while( dists[ currentPos ] != 0 )
+        {
+            if( dists[ currentPos ] < dist )
+            {
+                    // Take the cell and carry its item on
+                Object displaced = array[ currentPos ];
+                int displacedDist = dists[ currentPos ];
+                array[ currentPos ] = x;
+                dists[ currentPos ] = dist;
+                x = displaced;
+                dist = displacedDist;
+            }
+
+            currentPos = next( currentPos );
+            dist++;
+        }
+
+        array[ currentPos ] = x;
+        dists[ currentPos ] = dist;
+    }
+
+    /**
+     * Expand the hash table.
+     */
+    private void rehash( )
+    {
+        Object [ ] oldArray = array;
+        int [ ] oldDists = dists;
+
+            // Create a new double-sized, empty table
+        allocateArray( 2 * oldArray.length );
+
+            // Copy table over
+        for( int i = 0; i < oldArray.length; i++ )
+            if( oldDists[ i ] != 0 )
+                place( oldArray[ i ], myhash( oldArray[ i ] ), 1 );
+    }
+
+    /**
+     * Method that performs linear probing resolution.
+     * @param x the item to search for.
+     * @return the position of x, or -1 if not found.
+     */
+    private int findPos( Object x )
+    {
+        int currentPos = myhash( x );
+
+        for( int dist = 1; dists[ currentPos ] >= dist; dist++ )
+        {
+            if( dists[ currentPos ] == dist && array[ currentPos ].equals( x ) )
+                return currentPos;
+            currentPos = next( currentPos );
+        }
+
+        return -1;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if item removed
+     */
+    public boolean remove( AnyType x )
+    {
+        int currentPos = findPos( x );
+        if( currentPos == -1 )
+            return false;
+
+            // Shift the displaced items that follow back by one cell
+        int nextPos = next( currentPos );
+        while( dists[ nextPos ] > 1 )
+        {
+            array[ currentPos ] = array[ nextPos ];
+            dists[ currentPos ] = dists[ nextPos ] - 1;
+            currentPos = nextPos;
+            nextPos = next( nextPos );
+        }
+
+        array[ currentPos ] = null;
+        dists[ currentPos ] = 0;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return array.length;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        return findPos( x ) != -1;
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        theSize = 0;
+        for( int i = 0; i < array.length; i++ )
+        {
+            array[ i ] = null;
+            dists[ i ] = 0;
+        }
+    }
+
+    private int next( int currentPos )
+    {
+        return ++currentPos == array.length ? 0 : currentPos;
+    }
+
+    private int myhash( Object x )
+    {
+        return sizing.index( x.hashCode( ), array.length );
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final double MAX_LOAD = 0.85;
+
+    private final TableSizing sizing;  // How the array is sized and indexed
+    private Object [ ] array;          // The items, null for empty
+    private int [ ] dists;             // Probe distance of each item plus one, 0 for empty
+    private int theSize;               // Current size
+
+    /**
+     * Internal method to allocate array.
+     * @param arraySize the size of the array.
+     */
+    private void allocateArray( int arraySize )
+    {
+        array = new Object[ sizing.capacity( arraySize ) ];
+        dists = new int[ array.length ];
+    }
+}
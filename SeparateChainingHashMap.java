@@ -0,0 +1,200 @@
+package hashTable;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// SeparateChainingHashMap class
+//
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               or a LoadPolicy,
+//               and optionally a TableSizing scheme (default PRIME)
+//               and incremental resizing (default off)
+//
+// ******************PUBLIC OPERATIONS*********************
+// All of the operations of SeparateChainingHashTable, plus
+// ValueType get( k )                  --> Return the value of k, or null
+// ValueType put( k, v )               --> Map k to v, return old value
+// ValueType putIfAbsent( k, v )       --> Map k to v unless k has a value
+// ValueType computeIfAbsent( k, f )   --> Map k to f( k ) unless k has a value
+// ValueType merge( k, v, f )          --> Combine v into the value of k
+
+/**
+ * Separate chaining hash table that maps each item to a value.
+ * The value is kept in the chain entry of its item, so every
+ * operation walks a single chain once.
+ * The operations follow the contracts of the same methods of java.util.Map.
+ */
+public class SeparateChainingHashMap<AnyType, ValueType> extends SeparateChainingHashTable<AnyType>
+{
+    /**
+     * Construct the hash map.
+     */
+    public SeparateChainingHashMap( )
+    {
+        super( );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param size approximate table size.
+     */
+    public SeparateChainingHashMap( int size )
+    {
+        super( size );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param size approximate table size.
+     * @param sizing how the array is sized and indexed.
+     */
+    public SeparateChainingHashMap( int size, TableSizing sizing )
+    {
+        super( size, sizing );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param size approximate table size.
+     * @param sizing how the array is sized and indexed.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public SeparateChainingHashMap( int size, TableSizing sizing, boolean incremental )
+    {
+        super( size, sizing, incremental );
+    }
+
+    /**
+     * Construct the hash map.
+     * @param policy when the table grows and shrinks.
+     * @param sizing how the array is sized and indexed.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public SeparateChainingHashMap( LoadPolicy policy, TableSizing sizing, boolean incremental )
+    {
+        super( policy, sizing, incremental );
+    }
+
+    /**
+     * Get the value of a key.
+     * @param key the key to search for.
+     * @return the value, or null if the key is not present.
+     */
+    public ValueType get( AnyType key )
+    {
+        int hashVal = key.hashCode( );
+        HashEntry<AnyType> entry = findEntry( listFor( key, hashVal ), key, hashVal );
+        return entry == null ? null : value( entry );
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value, or null if there was none.
+     */
+    public ValueType put( AnyType key, ValueType value )
+    {
+        int hashVal = key.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( key, hashVal );
+        HashEntry<AnyType> entry = findEntry( whichList, key, hashVal );
+        if( entry == null )
+        {
+            addEntry( whichList, key, hashVal, value );
+            return null;
+        }
+
+        ValueType old = value( entry );
+        entry.value = value;
+        return old;
+    }
+
+    /**
+     * Map a key to a value unless it already has a non-null value.
+     * @param key the key.
+     * @param value the value.
+     * @return the existing value, or null if the value was stored.
+     */
+    public ValueType putIfAbsent( AnyType key, ValueType value )
+    {
+        int hashVal = key.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( key, hashVal );
+        HashEntry<AnyType> entry = findEntry( whichList, key, hashVal );
+        if( entry == null )
+        {
+            addEntry( whichList, key, hashVal, value );
+            return null;
+        }
+
+        ValueType old = value( entry );
+        if( old == null )
+            entry.value = value;
+        return old;
+    }
+
+    /**
+     * Map a key to a computed value unless it already has a non-null value.
+     * The function must not modify this map.
+     * @param key the key.
+     * @param f the function computing the value; a null result stores nothing.
+     * @return the existing or computed value.
+     */
+    public ValueType computeIfAbsent( AnyType key, Function<? super AnyType, ? extends ValueType> f )
+    {
+        int hashVal = key.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( key, hashVal );
+        HashEntry<AnyType> entry = findEntry( whichList, key, hashVal );
+        if( entry != null && entry.value != null )
+            return value( entry );
+
+        ValueType value = f.apply( key );
+        if( value == null )
+            return null;
+
+        if( entry == null )
+            addEntry( whichList, key, hashVal, value );
+        else
+            entry.value = value;
+        return value;
+    }
+
+    /**
+     * Store a value for a key, or combine it with the existing value.
+     * The function must not modify this map.
+     * @param key the key.
+     * @param value the value to store or combine, not null.
+     * @param f the function combining the old and new values;
+     *          a null result removes the key.
+     * @return the new value, or null if the key was removed.
+     */
+    public ValueType merge( AnyType key, ValueType value,
+                            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> f )
+    {
+        if( value == null )
+            throw new NullPointerException( "value" );
+
+        int hashVal = key.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( key, hashVal );
+        HashEntry<AnyType> entry = findEntry( whichList, key, hashVal );
+        if( entry == null )
+        {
+            addEntry( whichList, key, hashVal, value );
+            return value;
+        }
+
+        ValueType old = value( entry );
+        ValueType merged = old == null ? value : f.apply( old, value );
+        if( merged == null )
+            removeEntry( whichList, entry );
+        else
+            entry.value = merged;
+        return merged;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private ValueType value( HashEntry<AnyType> entry )
+    {
+        return (ValueType) entry.value;
+    }
+}
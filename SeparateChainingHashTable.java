@@ -1,27 +1,67 @@
 package hashTable;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-
-import static hashTable.GenerateRandomString.genRandStr;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 // SeparateChaining Hash table class
 //
-// CONSTRUCTION: an approximate initial size or default of 101
+// CONSTRUCTION: an approximate initial size or default of 101,
+//               or a LoadPolicy (default: grow by doubling past one item per list),
+//               and optionally a TableSizing scheme (default PRIME)
+//               and incremental resizing (default off)
 //
 // ******************PUBLIC OPERATIONS*********************
-// void insert( x )       --> Insert x
-// void remove( x )       --> Remove x
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
 // boolean contains( x )  --> Return true if x is present
+// int insertAll( c )     --> Insert the items of c, return number inserted
+// int removeAll( c )     --> Remove the items of c, return number removed
+// boolean containsAll( c ) --> Return true if every item of c is present
 // void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return number of chains
+// Stream stream( )       --> Return a stream of the items; also iterator( ),
+//                            spliterator( ) and parallelStream( )
+// void setMetrics( m )   --> Record what the table does in m, or nothing if null
 
 /**
  * Separate chaining table implementation of hash tables.
+ * In incremental mode a resize does not move every chain at once:
+ * the old array stays live and each insert or remove moves the next
+ * MIGRATION_STEP chains, so no single operation pays for the whole
+ * table. An item whose old chain has not been moved yet is looked up
+ * there; every other item is looked up in the new array.
+ * <p>
+ * Otherwise a table of at least PARALLEL_THRESHOLD chains is resized
+ * in parallel on the common fork-join pool. The old array is split
+ * into ranges, and so is the new one; one task per old range sorts
+ * its entries into a buffer per new range, then one task per new
+ * range builds its chains from the buffers meant for it, so no two
+ * tasks ever touch the same chain.
+ * <p>
+ * The bulk operations take a collection or an array. insertAll grows
+ * the table once, up front, to hold all its items, instead of
+ * doubling again and again as they arrive.
+ * <p>
+ * A LoadPolicy sets the average chain length at which the table
+ * grows, which may be more than one, how much it grows, and whether
+ * it shrinks once enough items are removed.
+ * <p>
+ * Each entry keeps the hash code of its item. A search compares it
+ * before calling equals, and a resize moves the entries to their new
+ * chains by their saved codes, so hashCode is called once per insert
+ * or search and never while resizing.
  * Note that all "matching" is based on the equals method.
  * @author Mark Allen Weiss
  */
-public class SeparateChainingHashTable<AnyType>
+public class SeparateChainingHashTable<AnyType> implements HashTable<AnyType>
 {
     /**
      * Construct the hash table.
@@ -37,41 +77,115 @@ public class SeparateChainingHashTable<AnyType>
      */
     public SeparateChainingHashTable( int size )
     {
-        theLists = new LinkedList[ nextPrime( size ) ];
+        this( size, TableSizing.PRIME );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     * @param sizing how the array is sized and indexed.
+     */
+    public SeparateChainingHashTable( int size, TableSizing sizing )
+    {
+        this( size, sizing, false );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size approximate table size.
+     * @param sizing how the array is sized and indexed.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public SeparateChainingHashTable( int size, TableSizing sizing, boolean incremental )
+    {
+        this( size, sizing, incremental, DEFAULT_POLICY );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param policy when the table grows and shrinks.
+     */
+    public SeparateChainingHashTable( LoadPolicy policy )
+    {
+        this( policy, TableSizing.PRIME, false );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param policy when the table grows and shrinks.
+     * @param sizing how the array is sized and indexed.
+     * @param incremental true to spread each resize over later operations.
+     */
+    public SeparateChainingHashTable( LoadPolicy policy, TableSizing sizing, boolean incremental )
+    {
+        this( policy.initialLength( DEFAULT_TABLE_SIZE ), sizing, incremental, policy );
+    }
+
+    /**
+     * Internal constructor for all the others.
+     */
+    private SeparateChainingHashTable( int size, TableSizing sizing, boolean incremental, LoadPolicy policy )
+    {
+        this.sizing = sizing;
+        this.incremental = incremental;
+        this.policy = policy;
+        theLists = newLists( sizing.capacity( size ) );
         for( int i = 0; i < theLists.length; i++ )
             theLists[ i ] = new LinkedList<>( );
+        minLength = theLists.length;
+        setThresholds( );
     }
 
     /**
      * Insert into the hash table. If the item is
      * already present, then do nothing.
      * @param x the item to insert.
+     * @return true if the item was inserted.
      */
-    public void insert( AnyType x )
+    public boolean insert( AnyType x )
     {
-        List<AnyType> whichList = theLists[ myhash( x ) ];
-        if( !whichList.contains( x ) )
-        {
-            whichList.add( x );
+        int hashVal = x.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( x, hashVal );
+        if( findEntry( whichList, x, hashVal ) != null )
+            return false;
 
-                // Rehash; see Section 5.5
-            if( ++currentSize > theLists.length )
-                rehash( );
-        }
+        addEntry( whichList, x, hashVal, null );
+        return true;
     }
 
     /**
      * Remove from the hash table.
      * @param x the item to remove.
+     * @return true if the item was removed.
      */
-    public void remove( AnyType x )
-    {
-        List<AnyType> whichList = theLists[ myhash( x ) ];
-        if( whichList.contains( x ) )
+    public boolean remove( AnyType x )
     {
-        whichList.remove( x );
-            currentSize--;
-    }
+        int hashVal = x.hashCode( );
+        List<HashEntry<AnyType>> whichList = listFor( x, hashVal );
+        int examined = 0;
+        boolean removed = false;
+        if( whichList != null )
+            for( Iterator<HashEntry<AnyType>> itr = whichList.iterator( ); itr.hasNext( ); )
+            {
+                examined++;
+                HashEntry<AnyType> entry = itr.next( );
+                if( entry.hash == hashVal && entry.element.equals( x ) )
+                {
+                    itr.remove( );
+                    currentSize--;
+                    removed = true;
+                    break;
+                }
+            }
+
+        if( metrics != null )
+            metrics.recordSearch( examined );
+        if( currentSize < shrinkSize )
+            rehash( policy.shrunkLength( currentSize, minLength ) );
+        else if( oldLists != null )
+            migrate( MIGRATION_STEP );
+
+        return removed;
     }
 
     /**
@@ -81,8 +195,237 @@ public class SeparateChainingHashTable<AnyType>
      */
     public boolean contains( AnyType x )
     {
-        List<AnyType> whichList = theLists[ myhash( x ) ];
-        return whichList.contains( x );
+        int hashVal = x.hashCode( );
+        return findEntry( listFor( x, hashVal ), x, hashVal ) != null;
+    }
+
+    /**
+     * Insert every item of a collection, as insert would one by one.
+     * @param items the items to insert.
+     * @return the number of items inserted.
+     */
+    public int insertAll( Collection<? extends AnyType> items )
+    {
+        reserve( items.size( ) );
+
+        int inserted = 0;
+        for( AnyType x : items )
+            if( insert( x ) )
+                inserted++;
+
+        return inserted;
+    }
+
+    /**
+     * Insert every item of an array, as insert would one by one.
+     * @param items the items to insert.
+     * @return the number of items inserted.
+     */
+    public int insertAll( AnyType [ ] items )
+    {
+        reserve( items.length );
+
+        int inserted = 0;
+        for( AnyType x : items )
+            if( insert( x ) )
+                inserted++;
+
+        return inserted;
+    }
+
+    /**
+     * Remove every item of a collection, as remove would one by one.
+     * @param items the items to remove.
+     * @return the number of items removed.
+     */
+    public int removeAll( Collection<? extends AnyType> items )
+    {
+        int removed = 0;
+        for( AnyType x : items )
+            if( remove( x ) )
+                removed++;
+
+        return removed;
+    }
+
+    /**
+     * Remove every item of an array, as remove would one by one.
+     * @param items the items to remove.
+     * @return the number of items removed.
+     */
+    public int removeAll( AnyType [ ] items )
+    {
+        int removed = 0;
+        for( AnyType x : items )
+            if( remove( x ) )
+                removed++;
+
+        return removed;
+    }
+
+    /**
+     * Find every item of a collection in the hash table.
+     * @param items the items to search for.
+     * @return true if all of them are present.
+     */
+    public boolean containsAll( Collection<? extends AnyType> items )
+    {
+        for( AnyType x : items )
+            if( !contains( x ) )
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Find every item of an array in the hash table.
+     * @param items the items to search for.
+     * @return true if all of them are present.
+     */
+    public boolean containsAll( AnyType [ ] items )
+    {
+        for( AnyType x : items )
+            if( !contains( x ) )
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Internal method to grow the table, if needed, so that n more
+     * items can be inserted without another resize. The resize is
+     * done at once, even in incremental mode.
+     * @param n the number of items about to be inserted.
+     */
+    private void reserve( int n )
+    {
+        if( currentSize + n > maxSize )
+        {
+            rehash( policy.lengthFor( currentSize + n ) );
+            if( oldLists != null )
+                migrate( oldLists.length );
+        }
+    }
+
+    /**
+     * Internal method to get the list an item hashes to.
+     * @param x the item.
+     * @param hashVal the hash code of x.
+     * @return the list that holds x if it is present, or null if
+     *         that list has not been created yet.
+     */
+    List<HashEntry<AnyType>> listFor( AnyType x, int hashVal )
+    {
+        return listFor( x, hashVal, false );
+    }
+
+    /**
+     * Internal method to get the list an item hashes to.
+     * @param x the item.
+     * @param hashVal the hash code of x.
+     * @param create true to create the list if there is none yet.
+     * @return the list that holds x if it is present, or null.
+     */
+    private List<HashEntry<AnyType>> listFor( AnyType x, int hashVal, boolean create )
+    {
+        List<HashEntry<AnyType>> [ ] lists = theLists;
+        int pos = -1;
+
+        if( oldLists != null )
+        {
+            pos = sizing.index( hashVal, oldLists.length );
+            if( pos >= migrated )
+                lists = oldLists;            // Not moved yet
+        }
+
+        if( lists == theLists )
+            pos = myhash( hashVal );
+
+            // In incremental mode lists are created when first inserted into
+        if( create && lists[ pos ] == null )
+            lists[ pos ] = new LinkedList<>( );
+        return lists[ pos ];
+    }
+
+    /**
+     * Internal method to find the entry of an item in its list.
+     * @param whichList the list returned by listFor( x, hashVal ), or null.
+     * @param x the item to search for.
+     * @param hashVal the hash code of x.
+     * @return the entry holding x, or null if x is not present.
+     */
+    HashEntry<AnyType> findEntry( List<HashEntry<AnyType>> whichList, AnyType x, int hashVal )
+    {
+        int examined = 0;
+        if( whichList != null )
+            for( HashEntry<AnyType> entry : whichList )
+            {
+                examined++;
+                if( entry.hash == hashVal && entry.element.equals( x ) )
+                {
+                    if( metrics != null )
+                        metrics.recordSearch( examined );
+                    return entry;
+                }
+            }
+
+        if( metrics != null )
+            metrics.recordSearch( examined );
+        return null;
+    }
+
+    /**
+     * Internal method to add an item known not to be present.
+     * @param whichList the list returned by listFor( x, hashVal ), or null.
+     * @param x the item to insert.
+     * @param hashVal the hash code of x.
+     * @param value the value stored alongside x.
+     */
+    void addEntry( List<HashEntry<AnyType>> whichList, AnyType x, int hashVal, Object value )
+    {
+        if( whichList == null )
+            whichList = listFor( x, hashVal, true );
+        whichList.add( new HashEntry<>( x, hashVal, value ) );
+
+            // Rehash; see Section 5.5
+        if( ++currentSize > maxSize )
+            rehash( );
+        else if( oldLists != null )
+            migrate( MIGRATION_STEP );
+    }
+
+    /**
+     * Internal method to remove an entry found by findEntry.
+     * @param whichList the list holding the entry.
+     * @param entry the entry to remove.
+     */
+    void removeEntry( List<HashEntry<AnyType>> whichList, HashEntry<AnyType> entry )
+    {
+        whichList.remove( entry );
+        currentSize--;
+
+        if( currentSize < shrinkSize )
+            rehash( policy.shrunkLength( currentSize, minLength ) );
+        else if( oldLists != null )
+            migrate( MIGRATION_STEP );
+    }
+
+    /**
+     * Start or stop recording metrics.
+     * @param m the metrics to update, or null to record nothing.
+     */
+    public void setMetrics( HashTableMetrics m )
+    {
+        metrics = m;
+    }
+
+    /**
+     * Get the metrics being recorded.
+     * @return the metrics, or null if none.
+     */
+    public HashTableMetrics getMetrics( )
+    {
+        return metrics;
     }
 
     /**
@@ -91,10 +434,115 @@ public class SeparateChainingHashTable<AnyType>
     public void makeEmpty( )
     {
         for( int i = 0; i < theLists.length; i++ )
-            theLists[ i ].clear( );
+            if( theLists[ i ] != null )
+                theLists[ i ].clear( );
+        oldLists = null;
         currentSize = 0;    
     }
 
+    /**
+     * Get current size.
+     * @return the number of items in the table.
+     */
+    public int size( )
+    {
+        return currentSize;
+    }
+
+    /**
+     * Get the number of chains of the current array.
+     * @return the length of the array of lists.
+     */
+    public int capacity( )
+    {
+        return theLists.length;
+    }
+
+    /**
+     * Make a spliterator over the items, split by ranges of the array
+     * of lists. A resize in progress is finished first.
+     * @return the spliterator.
+     */
+    public Spliterator<AnyType> spliterator( )
+    {
+        if( oldLists != null )
+            migrate( oldLists.length );
+        return new Chains<>( theLists, 0, theLists.length, currentSize );
+    }
+
+    /**
+     * A spliterator over a range of an array of lists. Each list
+     * is walked with its own iterator.
+     */
+    private static final class Chains<AnyType> implements Spliterator<AnyType>
+    {
+        Chains( List<HashEntry<AnyType>> [ ] lists, int origin, int fence, long estimate )
+        {
+            this.lists = lists;
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+        }
+
+        public boolean tryAdvance( Consumer<? super AnyType> action )
+        {
+            while( chain == null || !chain.hasNext( ) )
+            {
+                if( index >= fence )
+                    return false;
+
+                List<HashEntry<AnyType>> list = lists[ index++ ];
+                chain = list == null || list.isEmpty( ) ? null : list.iterator( );
+            }
+
+            action.accept( chain.next( ).element );
+            return true;
+        }
+
+        public void forEachRemaining( Consumer<? super AnyType> action )
+        {
+            if( chain != null )
+                while( chain.hasNext( ) )
+                    action.accept( chain.next( ).element );
+            chain = null;
+
+            for( ; index < fence; index++ )
+                if( lists[ index ] != null )
+                    for( HashEntry<AnyType> entry : lists[ index ] )
+                        action.accept( entry.element );
+        }
+
+        public Spliterator<AnyType> trySplit( )
+        {
+            int mid = ( index + fence ) >>> 1;
+            if( mid - index < MIN_SPLIT )
+                return null;
+
+            estimate >>>= 1;
+            Spliterator<AnyType> prefix = new Chains<>( lists, index, mid, estimate );
+            index = mid;
+            return prefix;
+        }
+
+        public long estimateSize( )
+        {
+            return estimate;
+        }
+
+        public int characteristics( )
+        {
+            return DISTINCT | NONNULL;
+        }
+
+        private static final int MIN_SPLIT = 1 << 10;   // Lists below which a range is not split
+
+        private final List<HashEntry<AnyType>> [ ] lists;
+        private int index;                          // The next list
+        private final int fence;                    // One past the last list
+        private long estimate;                      // Approximate number of items left
+        private Iterator<HashEntry<AnyType>> chain; // The list being walked, or null
+    }
+
     /**
      * A hash routine for String objects.
      * @param key the String to hash.
@@ -115,136 +563,221 @@ public class SeparateChainingHashTable<AnyType>
         return hashVal;
     }
 
-    private void rehash( )
+    /**
+     * Internal method to set the sizes at which the current array
+     * grows and shrinks.
+     */
+    private void setThresholds( )
     {
-        List<AnyType> [ ]  oldLists = theLists;
-
-            // Create new double-sized, empty table
-        theLists = new List[ nextPrime( 2 * theLists.length ) ];
-        for( int j = 0; j < theLists.length; j++ )
-            theLists[ j ] = new LinkedList<>( );
+        maxSize = policy.maxSize( theLists.length );
+        shrinkSize = policy.shrinkSize( theLists.length, minLength );
+    }
 
-            // Copy table over
-        currentSize = 0;
-        for( List<AnyType> list : oldLists )
-            for( AnyType item : list )
-                insert( item );
+    /**
+     * Start moving the entries into a new, larger array.
+     */
+    private void rehash( )
+    {
+        rehash( policy.grownLength( theLists.length ) );
     }
 
-    private int myhash( AnyType x )
+    /**
+     * Start moving the entries into a new array. In incremental
+     * mode the lists of the new array are created as they are
+     * needed, and the chains are moved by later operations.
+     * @param newLength the minimum length of the new array.
+     */
+    private void rehash( int newLength )
     {
-        int hashVal = x.hashCode( );
+        long startTime = metrics != null ? System.nanoTime( ) : 0;
+        if( oldLists != null )
+            migrate( oldLists.length );   // Finish the previous resize first
 
-        hashVal %= theLists.length;
-        if( hashVal < 0 )
-            hashVal += theLists.length;
+        oldLists = theLists;
+        migrated = 0;
 
-        return hashVal;
-    }
-    
-    private static final int DEFAULT_TABLE_SIZE = 101;
+            // Create new, empty table
+        theLists = newLists( sizing.capacity( newLength ) );
+        setThresholds( );
+        if( !incremental )
+        {
+            if( oldLists.length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism( ) > 1 )
+                migrateInParallel( );
+            else
+            {
+                for( int j = 0; j < theLists.length; j++ )
+                    theLists[ j ] = new LinkedList<>( );
+                migrate( oldLists.length );
+            }
+        }
 
-        /** The array of Lists. */
-    private List<AnyType> [ ] theLists; 
-    private int currentSize;
+        if( metrics != null )
+            metrics.recordRehash( System.nanoTime( ) - startTime );
+    }
 
     /**
-     * Internal method to find a prime number at least as large as n.
-     * @param n the starting number (must be positive).
-     * @return a prime number larger than or equal to n.
+     * Internal method to allocate an array of lists.
+     * @param length the length of the array.
      */
-    private static int nextPrime( int n )
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType> List<HashEntry<AnyType>> [ ] newLists( int length )
     {
-        if( n % 2 == 0 )
-            n++;
+        return (List<HashEntry<AnyType>> [ ]) new List<?>[ length ];
+    }
 
-        for( ; !isPrime( n ); n += 2 )
-            ;
+    /**
+     * Internal method to move every chain of the old array at once,
+     * using the common fork-join pool, and create the lists of the
+     * new array.
+     */
+    private void migrateInParallel( )
+    {
+        int parts = 4 * ForkJoinPool.getCommonPoolParallelism( );
+        int fromRange = ( oldLists.length + parts - 1 ) / parts;
+        int toRange = ( theLists.length + parts - 1 ) / parts;
+        @SuppressWarnings( "unchecked" )
+        Buffer<AnyType> [ ][ ] buffers = (Buffer<AnyType> [ ][ ]) new Buffer<?>[ parts ][ ];
+
+            // Sort the entries of each old range by the new range they go to
+        IntStream.range( 0, parts ).parallel( ).forEach( p -> {
+            @SuppressWarnings( "unchecked" )
+            Buffer<AnyType> [ ] out = (Buffer<AnyType> [ ]) new Buffer<?>[ parts ];
+            for( int q = 0; q < parts; q++ )
+                out[ q ] = new Buffer<>( );
+
+            int end = Math.min( ( p + 1 ) * fromRange, oldLists.length );
+            for( int i = p * fromRange; i < end; i++ )
+                if( oldLists[ i ] != null )
+                    for( HashEntry<AnyType> entry : oldLists[ i ] )
+                    {
+                        int pos = myhash( entry.hash );
+                        out[ pos / toRange ].add( entry, pos );
+                    }
+            buffers[ p ] = out;
+        } );
+
+            // Build the chains of each new range from its buffers
+        IntStream.range( 0, parts ).parallel( ).forEach( q -> {
+            int end = Math.min( ( q + 1 ) * toRange, theLists.length );
+            for( int j = q * toRange; j < end; j++ )
+                theLists[ j ] = new LinkedList<>( );
+
+            for( int p = 0; p < parts; p++ )
+            {
+                Buffer<AnyType> b = buffers[ p ][ q ];
+                for( int k = 0; k < b.size; k++ )
+                    theLists[ b.targets[ k ] ].add( b.entries[ k ] );
+            }
+        } );
 
-        return n;
+        oldLists = null;
     }
 
     /**
-     * Internal method to test if a number is prime.
-     * Not an efficient algorithm.
-     * @param n the number to test.
-     * @return the result of the test.
+     * Internal method to move the next chains of the old array,
+     * moving the entries themselves.
+     * @param chains the maximum number of chains to move.
      */
-    private static boolean isPrime( int n )
+    private void migrate( int chains )
     {
-        if( n == 2 || n == 3 )
-            return true;
-
-        if( n == 1 || n % 2 == 0 )
-            return false;
+        int end = Math.min( migrated + chains, oldLists.length );
+        for( ; migrated < end; migrated++ )
+        {
+            if( oldLists[ migrated ] == null )
+                continue;
 
-        for( int i = 3; i * i <= n; i += 2 )
-            if( n % i == 0 )
-                return false;
+            for( HashEntry<AnyType> entry : oldLists[ migrated ] )
+            {
+                int pos = myhash( entry.hash );
+                if( theLists[ pos ] == null )
+                    theLists[ pos ] = new LinkedList<>( );
+                theLists[ pos ].add( entry );
+            }
+            oldLists[ migrated ] = null;
+        }
 
-        return true;
+        if( migrated == oldLists.length )
+            oldLists = null;
     }
 
-
-        // Simple main
-    public static void main( String [ ] args )
+    private int myhash( int hashVal )
     {
+        return sizing.index( hashVal, theLists.length );
+    }
+    
+    /**
+     * The entries one task of a parallel resize sends to one range
+     * of the new array, with the position of each.
+     */
+    private static class Buffer<AnyType>
+    {
+        HashEntry<AnyType> [ ] entries;
+        int [ ] targets = new int[ 16 ];
+        int size;
 
-        final int NUMS = 16;
-
-        // Outer for loop for looping 15 times
-        for(int i = 1; i < NUMS; i++)
+        @SuppressWarnings( "unchecked" )
+        Buffer( )
         {
-            SeparateChainingHashTable<String> H = new SeparateChainingHashTable<>( );
-
-            // Simple list for calculating average time for hash insertion
-            ArrayList<Double> timeElapsedInsertList = new ArrayList<Double>();
-
-            // list that will hold N number of random string for
-            // searching in the created hash later on section 2
-            ArrayList<String> listOfRandStr = new ArrayList<String>();
+            entries = (HashEntry<AnyType> [ ]) new HashEntry<?>[ 16 ];
+        }
 
-            // Inner for loop for looping 2^i times
-            for(int j = 0; j < Math.pow(2, i); j++)
+        void add( HashEntry<AnyType> entry, int target )
+        {
+            if( size == entries.length )
             {
-                // Generating a random string list for part 2
-                listOfRandStr.add( genRandStr() );
-
-                double startTime = System.currentTimeMillis( );
-                H.insert( genRandStr() ); // Hash insertion
-                double endTime = System.currentTimeMillis( );
-                double timeElapsed = endTime - startTime;
-                timeElapsedInsertList.add(timeElapsed);
+                entries = Arrays.copyOf( entries, 2 * size );
+                targets = Arrays.copyOf( targets, 2 * size );
             }
+            entries[ size ] = entry;
+            targets[ size++ ] = target;
+        }
+    }
 
-            // Calculating average time elapsed
-            double totalTimeElapsed = 0;
-            for(int k = 0; k < timeElapsedInsertList.size(); k++)
-                totalTimeElapsed += timeElapsedInsertList.get(k);
-            System.out.println("Total time elapsed inserting: " + totalTimeElapsed);
+    /**
+     * An item and the value mapped to it, if any.
+     */
+    static class HashEntry<AnyType>
+    {
+        final AnyType element;   // the element
+        final int hash;          // the hash code of the element
+        Object value;            // the value mapped to the element
 
+        HashEntry( AnyType e, int h, Object v )
+        {
+            element = e;
+            hash = h;
+            value = v;
+        }
+    }
 
-            // Simple list for calculating average time for hash search and delete
-            ArrayList<Double> timeElapsedSearchDeleteList = new ArrayList<Double>();
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final LoadPolicy DEFAULT_POLICY = new LoadPolicy( 1 );
+    private static final int MIGRATION_STEP = 8;   // Chains moved per update while resizing
+    private static final int PARALLEL_THRESHOLD = 1 << 16;   // Chains below which resizing is sequential
+
+    private final TableSizing sizing;  // How the array is sized and indexed
+    private final boolean incremental; // Resizes are spread over later operations
+    private final LoadPolicy policy;   // When the array grows and shrinks
+    private final int minLength;       // The initial length, below which it never shrinks
+    private int maxSize;               // Size past which the array grows
+    private int shrinkSize;            // Size below which it shrinks, or 0
+
+        /** The array of Lists of entries. */
+    private List<HashEntry<AnyType>> [ ] theLists; 
+    private int currentSize;
 
-            // Iterating over all the in the string list for searching in hash H
-            for (String str : listOfRandStr)
-            {
-                double startTime = System.currentTimeMillis( );
-                if ( H.contains( str ) )
-                {
-                    H.remove( str );
-                }
-                double endTime = System.currentTimeMillis( );
-                double timeElapsed = endTime - startTime;
-                timeElapsedSearchDeleteList.add(timeElapsed);
-            }
+        /** The array being moved out of during a resize, or null. */
+    private List<HashEntry<AnyType>> [ ] oldLists;
+    private int migrated;              // Chains of oldLists already moved
+    private HashTableMetrics metrics;  // What the table does, or null
 
-            // Calculating average time elapsed
-            double totalTimeElapsedSearchDelete = 0;
-            for(int k = 0; k < timeElapsedSearchDeleteList.size(); k++)
-                totalTimeElapsedSearchDelete += timeElapsedSearchDeleteList.get(k);
-            System.out.println("Total time elapsed searching and deleting: " + totalTimeElapsedSearchDelete);
-        }
+    // Simple main: benchmark this table, see HashTableBenchmark for options
+    public static void main( String [ ] args ) throws Exception
+    {
+        String [ ] benchmarkArgs = new String[ args.length + 2 ];
+        benchmarkArgs[ 0 ] = "-table";
+        benchmarkArgs[ 1 ] = "chaining";
+        System.arraycopy( args, 0, benchmarkArgs, 2, args.length );
+        HashTableBenchmark.main( benchmarkArgs );
     }
 }
@@ -0,0 +1,286 @@
+package hashTable;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// ShardedHashTable class
+//
+// CONSTRUCTION: the number of shards (rounded up to a power of two)
+//               and a factory making the table of each shard
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// Stream stream( )       --> Return a stream of the items; also iterator( ),
+//                            spliterator( ) and parallelStream( )
+// int  getShardCount( )  --> Return number of shards
+// int [ ] shardSizes( )  --> Return number of items in each shard
+
+/**
+ * A hash table split into shards, each an independent table of its
+ * own. An item goes to the shard picked by the high bits of its mixed
+ * hash code, so the shards share the items about equally, and the low
+ * bits a POWER_OF_TWO shard indexes with are left to it.
+ * <p>
+ * No array is ever larger than one shard needs, so a very large set
+ * does not need one huge allocation, which G1 would have to place as
+ * a humongous object, and a resize copies one shard while the others
+ * go on as they are. Each shard has its own lock, so threads working
+ * on different shards never wait for each other, and any of the three
+ * tables, none of which is thread-safe, can serve as a shard.
+ * <p>
+ * The factory is called once per shard with its number, and must
+ * make a new table each time; a CuckooHashTable needs its own hash
+ * family, since families are not thread-safe and each table draws new
+ * functions on its own. The factory is also the place to give each
+ * shard its own HashTableMetrics, registered under the shard number,
+ * so that its probes and resizes can be seen apart from the others;
+ * the shard lock makes that safe. A scan goes one shard after another
+ * and, like a scan of any table, must not overlap updates.
+ */
+public class ShardedHashTable<AnyType> implements HashTable<AnyType>
+{
+    /**
+     * Construct the sharded table.
+     * @param shards the approximate number of shards.
+     * @param factory makes the table of shard i.
+     */
+    public ShardedHashTable( int shards, IntFunction<? extends HashTable<AnyType>> factory )
+    {
+        if( shards < 1 || shards > MAX_SHARDS )
+            throw new IllegalArgumentException( "shards: " + shards );
+
+        tables = newTables( shards == 1 ? 1 : TableSizing.POWER_OF_TWO.capacity( shards ) );
+        locks = new Object[ tables.length ];
+        for( int i = 0; i < tables.length; i++ )
+        {
+            tables[ i ] = factory.apply( i );
+            locks[ i ] = new Object( );
+        }
+        shift = 32 - Integer.numberOfTrailingZeros( tables.length );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int i = shardOf( x );
+        synchronized( locks[ i ] )
+        {
+            return tables[ i ].insert( x );
+        }
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if the item was removed.
+     */
+    public boolean remove( AnyType x )
+    {
+        int i = shardOf( x );
+        synchronized( locks[ i ] )
+        {
+            return tables[ i ].remove( x );
+        }
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        int i = shardOf( x );
+        synchronized( locks[ i ] )
+        {
+            return tables[ i ].contains( x );
+        }
+    }
+
+    /**
+     * Make the hash table logically empty, one shard at a time.
+     */
+    public void makeEmpty( )
+    {
+        for( int i = 0; i < tables.length; i++ )
+            synchronized( locks[ i ] )
+            {
+                tables[ i ].makeEmpty( );
+            }
+    }
+
+    /**
+     * Get current size, adding up the shards one at a time.
+     * @return the number of items in the table.
+     */
+    public int size( )
+    {
+        int total = 0;
+        for( int size : shardSizes( ) )
+            total += size;
+        return total;
+    }
+
+    /**
+     * Get the number of shards.
+     * @return the number of shards, a power of two.
+     */
+    public int getShardCount( )
+    {
+        return tables.length;
+    }
+
+    /**
+     * Get the size of every shard, one at a time.
+     * @return the number of items in shard i at position i.
+     */
+    public int [ ] shardSizes( )
+    {
+        int [ ] sizes = new int[ tables.length ];
+        for( int i = 0; i < tables.length; i++ )
+            synchronized( locks[ i ] )
+            {
+                sizes[ i ] = tables[ i ].size( );
+            }
+        return sizes;
+    }
+
+    /**
+     * Make a spliterator over the items, split by ranges of shards
+     * and then within a shard.
+     * @return the spliterator.
+     */
+    public Spliterator<AnyType> spliterator( )
+    {
+        return new Shards( 0, tables.length );
+    }
+
+    /**
+     * Internal method to allocate the array of tables.
+     * @param n the number of shards.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType> HashTable<AnyType> [ ] newTables( int n )
+    {
+        return (HashTable<AnyType> [ ]) new HashTable<?>[ n ];
+    }
+
+    /**
+     * Internal method to pick the shard of an item.
+     * @param x the item.
+     * @return the shard number.
+     */
+    private int shardOf( AnyType x )
+    {
+        return (int) ( ( TableSizing.mix( x.hashCode( ) ) & 0xFFFFFFFFL ) >>> shift );
+    }
+
+    /**
+     * Internal method to start a scan of one shard, which may finish
+     * a resize in progress.
+     */
+    private Spliterator<AnyType> shardSpliterator( int i )
+    {
+        synchronized( locks[ i ] )
+        {
+            return tables[ i ].spliterator( );
+        }
+    }
+
+    /**
+     * A spliterator over a range of shards. It splits the range in
+     * halves, and a single shard by its own spliterator.
+     */
+    private final class Shards implements Spliterator<AnyType>
+    {
+        Shards( int origin, int fence )
+        {
+            this.next = origin;
+            this.fence = fence;
+        }
+
+        public boolean tryAdvance( Consumer<? super AnyType> action )
+        {
+            while( true )
+            {
+                if( current == null )
+                {
+                    if( next == fence )
+                        return false;
+                    current = shardSpliterator( next++ );
+                }
+
+                if( current.tryAdvance( action ) )
+                    return true;
+                current = null;
+            }
+        }
+
+        public void forEachRemaining( Consumer<? super AnyType> action )
+        {
+            if( current != null )
+                current.forEachRemaining( action );
+            while( next < fence )
+                shardSpliterator( next++ ).forEachRemaining( action );
+            current = null;
+        }
+
+        public Spliterator<AnyType> trySplit( )
+        {
+            if( current == null && fence - next > 1 )
+            {
+                int mid = ( next + fence ) >>> 1;
+                Spliterator<AnyType> prefix = new Shards( next, mid );
+                next = mid;
+                return prefix;
+            }
+
+            if( current == null && fence - next == 1 )
+                current = shardSpliterator( next++ );
+            else if( current != null && next < fence )
+            {
+                Spliterator<AnyType> rest = new Shards( next, fence );
+                fence = next;
+                return rest;
+            }
+
+            return current != null ? current.trySplit( ) : null;
+        }
+
+        public long estimateSize( )
+        {
+            long size = current != null ? current.estimateSize( ) : 0;
+            for( int i = next; i < fence; i++ )
+                synchronized( locks[ i ] )
+                {
+                    size += tables[ i ].size( );
+                }
+            return size;
+        }
+
+        public int characteristics( )
+        {
+            return DISTINCT | NONNULL;
+        }
+
+        private int next;                       // The next shard to start
+        private int fence;                      // One past the last shard
+        private Spliterator<AnyType> current;   // The shard being scanned, or null
+    }
+
+    private static final int MAX_SHARDS = 1 << 16;
+
+    private final HashTable<AnyType> [ ] tables;   // The table of each shard
+    private final Object [ ] locks;                // The lock of each shard
+    private final int shift;                       // 32 - log2 of the number of shards
+}
@@ -12,6 +12,25 @@ public class StringHashFamily implements HashFamily<String>
         MULTIPLIERS = new int [ d ];
         generateNewFunctions( );
     }
+
+    /**
+     * Construct the family with given multipliers, such as those of
+     * a saved table.
+     * @param multipliers one multiplier per function.
+     */
+    StringHashFamily( int [ ] multipliers )
+    {
+        MULTIPLIERS = multipliers.clone( );
+    }
+
+    /**
+     * Get a copy of the current multipliers.
+     * @return one multiplier per function.
+     */
+    int [ ] getMultipliers( )
+    {
+        return MULTIPLIERS.clone( );
+    }
     public int getNumberOfFunctions( )
     {
         return MULTIPLIERS.length;
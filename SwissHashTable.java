@@ -0,0 +1,290 @@
+package hashTable;
+
+import java.util.Arrays;
+
+// Swiss Hash table class
+//
+// CONSTRUCTION: an approximate initial size or default of 101
+//
+// ******************PUBLIC OPERATIONS*********************
+// bool insert( x )       --> Insert x
+// bool remove( x )       --> Remove x
+// bool contains( x )     --> Return true if x is present
+// void makeEmpty( )      --> Remove all items
+// int  size( )           --> Return number of items
+// int  capacity( )       --> Return length of internal array
+
+/**
+ * Open addressing hash table in the style of the Swiss table.
+ * Each cell has a control byte: empty, deleted, or the low 7 bits of
+ * its item's hash. The control bytes of a group of 8 cells are packed
+ * into one long, and a probe examines a whole group at once with
+ * word-level bit tricks, calling equals only on cells whose 7 bits
+ * match. A search ends at the first group that has an empty cell, so
+ * most misses cost a single word comparison and no equals at all.
+ * Groups are probed in triangular order, which visits every group of
+ * a power-of-two table.
+ * Note that all "matching" is based on the equals method.
+ */
+public class SwissHashTable<AnyType>
+{
+    /**
+     * Construct the hash table.
+     */
+    public SwissHashTable( )
+    {
+        this( DEFAULT_TABLE_SIZE );
+    }
+
+    /**
+     * Construct the hash table.
+     * @param size the approximate initial size.
+     */
+    public SwissHashTable( int size )
+    {
+            // Room for size items below the maximum load of 7/8
+        allocateArray( TableSizing.POWER_OF_TWO.capacity( Math.max( GROUP_SIZE, size + size / 7 + 1 ) ) );
+    }
+
+    /**
+     * Insert into the hash table. If the item is
+     * already present, do nothing.
+     * @param x the item to insert.
+     * @return true if the item was inserted.
+     */
+    public boolean insert( AnyType x )
+    {
+        int hashVal = TableSizing.mix( x.hashCode( ) );
+        if( findPos( x, hashVal ) != -1 )
+            return false;
+
+        if( used >= array.length - array.length / 8 )
+            rehash( );
+
+        int currentPos = freePos( hashVal );
+        if( ctrlAt( currentPos ) == EMPTY )
+            used++;
+        array[ currentPos ] = x;
+        setCtrl( currentPos, (byte) ( hashVal & H2_MASK ) );
+        theSize++;
+        return true;
+    }
+
+    /**
+     * Remove from the hash table.
+     * @param x the item to remove.
+     * @return true if item removed
+     */
+    public boolean remove( AnyType x )
+    {
+        int currentPos = findPos( x, TableSizing.mix( x.hashCode( ) ) );
+        if( currentPos == -1 )
+            return false;
+
+            // A search stops at a group with an empty cell, so none
+            // can have passed through this one: the cell may be reused
+        if( matchEmpty( ctrl[ currentPos >>> 3 ] ) != 0 )
+        {
+            setCtrl( currentPos, EMPTY );
+            used--;
+        }
+        else
+            setCtrl( currentPos, DELETED );
+
+        array[ currentPos ] = null;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Find an item in the hash table.
+     * @param x the item to search for.
+     * @return true if x is present.
+     */
+    public boolean contains( AnyType x )
+    {
+        return findPos( x, TableSizing.mix( x.hashCode( ) ) ) != -1;
+    }
+
+    /**
+     * Get current size.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Get length of internal table.
+     * @return the size.
+     */
+    public int capacity( )
+    {
+        return array.length;
+    }
+
+    /**
+     * Make the hash table logically empty.
+     */
+    public void makeEmpty( )
+    {
+        Arrays.fill( array, null );
+        Arrays.fill( ctrl, ALL_EMPTY );
+        used = 0;
+        theSize = 0;
+    }
+
+    /**
+     * Method that probes the groups for an item.
+     * @param x the item to search for.
+     * @param hashVal the mixed hash value of x.
+     * @return the position of x, or -1 if not found.
+     */
+    private int findPos( Object x, int hashVal )
+    {
+        int groupMask = ctrl.length - 1;
+        int group = ( hashVal >>> 7 ) & groupMask;
+
+        for( int step = 1; ; step++ )
+        {
+            long word = ctrl[ group ];
+            for( long m = match( word, hashVal & H2_MASK ); m != 0; m &= m - 1 )
+            {
+                int currentPos = group * GROUP_SIZE + ( Long.numberOfTrailingZeros( m ) >>> 3 );
+                if( x.equals( array[ currentPos ] ) )
+                    return currentPos;
+            }
+
+            if( matchEmpty( word ) != 0 )
+                return -1;
+
+            group = ( group + step ) & groupMask;
+        }
+    }
+
+    /**
+     * Internal method to find the first empty or deleted cell on the
+     * probe sequence of a hash value.
+     * @param hashVal the mixed hash value.
+     * @return the position of the cell.
+     */
+    private int freePos( int hashVal )
+    {
+        int groupMask = ctrl.length - 1;
+        int group = ( hashVal >>> 7 ) & groupMask;
+
+        for( int step = 1; ; step++ )
+        {
+            long m = matchEmptyOrDeleted( ctrl[ group ] );
+            if( m != 0 )
+                return group * GROUP_SIZE + ( Long.numberOfTrailingZeros( m ) >>> 3 );
+
+            group = ( group + step ) & groupMask;
+        }
+    }
+
+    /**
+     * Rebuild the table: at the same length if deleted cells make up
+     * much of the load, otherwise at double the length. A table of
+     * MAX_TABLE_SIZE cells is only cleaned of its deleted cells.
+     * @throws IllegalStateException if the table can hold no more items.
+     */
+    private void rehash( )
+    {
+        Object [ ] oldArray = array;
+        long [ ] oldCtrl = ctrl;
+
+        boolean grow = theSize > (long) oldArray.length * 7 / 16;
+        if( grow && oldArray.length == MAX_TABLE_SIZE )
+        {
+            if( theSize >= MAX_TABLE_SIZE - MAX_TABLE_SIZE / 8 )
+                throw new IllegalStateException( "SwissHashTable is full" );
+            grow = false;
+        }
+
+        allocateArray( grow ? 2 * oldArray.length : oldArray.length );
+        for( int i = 0; i < oldArray.length; i++ )
+            if( isFull( oldCtrl, i ) )
+            {
+                int hashVal = TableSizing.mix( oldArray[ i ].hashCode( ) );
+                int currentPos = freePos( hashVal );
+                array[ currentPos ] = oldArray[ i ];
+                setCtrl( currentPos, (byte) ( hashVal & H2_MASK ) );
+            }
+
+        used = theSize;
+    }
+
+    /**
+     * Return a word with the high bit set in each byte of word equal to
+     * h2. May also flag a byte just above a true match; equals rejects it.
+     */
+    private static long match( long word, int h2 )
+    {
+        long x = word ^ ( LSBS * h2 );
+        return ( x - LSBS ) & ~x & MSBS;
+    }
+
+    /**
+     * Return a word with the high bit set in each EMPTY byte of word.
+     * EMPTY is the only control byte with bit 7 set and bit 1 clear.
+     */
+    private static long matchEmpty( long word )
+    {
+        return word & ~( word << 6 ) & MSBS;
+    }
+
+    /**
+     * Return a word with the high bit set in each EMPTY or DELETED byte
+     * of word. These are the control bytes with bit 7 set and bit 0 clear.
+     */
+    private static long matchEmptyOrDeleted( long word )
+    {
+        return word & ~( word << 7 ) & MSBS;
+    }
+
+    private static boolean isFull( long [ ] ctrl, int currentPos )
+    {
+        return ( ctrl[ currentPos >>> 3 ] >>> ( ( currentPos & 7 ) * 8 ) & 0x80 ) == 0;
+    }
+
+    private byte ctrlAt( int currentPos )
+    {
+        return (byte) ( ctrl[ currentPos >>> 3 ] >>> ( ( currentPos & 7 ) * 8 ) );
+    }
+
+    private void setCtrl( int currentPos, byte b )
+    {
+        int shift = ( currentPos & 7 ) * 8;
+        long word = ctrl[ currentPos >>> 3 ] & ~( 0xFFL << shift );
+        ctrl[ currentPos >>> 3 ] = word | ( ( b & 0xFFL ) << shift );
+    }
+
+    private static final int DEFAULT_TABLE_SIZE = 101;
+    private static final int GROUP_SIZE = 8;         // Cells per control word
+    private static final int MAX_TABLE_SIZE = 1 << 30;   // Largest power-of-two array
+    private static final int H2_MASK = 0x7F;         // Hash bits kept in a control byte
+
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+    private static final long ALL_EMPTY = 0x8080808080808080L;
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+
+    private Object [ ] array;   // The items
+    private long [ ] ctrl;      // The control bytes, GROUP_SIZE per word
+    private int used;           // Cells that are not EMPTY
+    private int theSize;        // Current size
+
+    /**
+     * Internal method to allocate array.
+     * @param arraySize the size of the array, a power of two of at least GROUP_SIZE.
+     */
+    private void allocateArray( int arraySize )
+    {
+        array = new Object[ arraySize ];
+        ctrl = new long[ arraySize / GROUP_SIZE ];
+        Arrays.fill( ctrl, ALL_EMPTY );
+    }
+}
@@ -0,0 +1,131 @@
+package hashTable;
+
+/**
+ * How a hash table sizes its array and maps hash values to positions.
+ * PRIME is the classic scheme: prime lengths and indexing by remainder.
+ * POWER_OF_TWO uses power-of-two lengths, scrambles the hash value with
+ * a bit-mixing finalizer so that the low bits depend on every input bit,
+ * and indexes with a mask. It trades the division on every probe and the
+ * prime search on every resize for one multiply-xorshift sequence.
+ */
+public enum TableSizing
+{
+    PRIME,
+    POWER_OF_TWO;
+
+        /** The largest power of two that is a legal array length. */
+    private static final int MAX_POWER_OF_TWO = 1 << 30;
+
+    /**
+     * Choose an array length of at least n for this scheme.
+     * @param n the requested length (must be positive).
+     * @return the array length to allocate.
+     */
+    public int capacity( int n )
+    {
+        if( this == POWER_OF_TWO )
+        {
+            if( n >= MAX_POWER_OF_TWO )
+                return MAX_POWER_OF_TWO;
+            return Integer.highestOneBit( Math.max( n - 1, 1 ) ) << 1;
+        }
+
+        return nextPrime( n );
+    }
+
+    /**
+     * Map a hash value to a position in an array of the given length.
+     * @param hashVal the raw hash value.
+     * @param length the array length, as returned by capacity.
+     * @return a position between 0 and length - 1.
+     */
+    public int index( int hashVal, int length )
+    {
+        if( this == POWER_OF_TWO )
+            return mix( hashVal ) & ( length - 1 );
+
+        hashVal %= length;
+        if( hashVal < 0 )
+            hashVal += length;
+
+        return hashVal;
+    }
+
+    /**
+     * The step added to the probe increment after each quadratic probe.
+     * Prime lengths probe h + i^2; power-of-two lengths probe the
+     * triangular numbers h + i(i+1)/2, which visit every cell.
+     * @return the increment step.
+     */
+    public int probeStep( )
+    {
+        return this == POWER_OF_TWO ? 1 : 2;
+    }
+
+    /**
+     * The 32-bit finalizer of MurmurHash3.
+     * @param h the value to mix.
+     * @return the mixed value.
+     */
+    public static int mix( int h )
+    {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3.
+     * @param h the value to mix.
+     * @return the mixed value.
+     */
+    public static long mix( long h )
+    {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Internal method to find a prime number at least as large as n.
+     * @param n the starting number (must be positive).
+     * @return a prime number larger than or equal to n.
+     */
+    private static int nextPrime( int n )
+    {
+        if( n % 2 == 0 )
+            n++;
+
+        for( ; !isPrime( n ); n += 2 )
+            ;
+
+        return n;
+    }
+
+    /**
+     * Internal method to test if a number is prime.
+     * Not an efficient algorithm.
+     * @param n the number to test.
+     * @return the result of the test.
+     */
+    private static boolean isPrime( int n )
+    {
+        if( n == 2 || n == 3 )
+            return true;
+
+        if( n == 1 || n % 2 == 0 )
+            return false;
+
+        for( int i = 3; i * i <= n; i += 2 )
+            if( n % i == 0 )
+                return false;
+
+        return true;
+    }
+}